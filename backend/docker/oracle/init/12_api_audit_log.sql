@@ -0,0 +1,50 @@
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE TABLE CMH.API_AUDIT_LOG (
+    ID NUMBER(19) PRIMARY KEY,
+    METHOD VARCHAR2(10) NOT NULL,
+    URI VARCHAR2(500) NOT NULL,
+    ROUTE VARCHAR2(500),
+    STATUS NUMBER(3) NOT NULL,
+    USERNAME VARCHAR2(100),
+    CLIENT_IP VARCHAR2(64),
+    USER_AGENT VARCHAR2(500),
+    PARAMS VARCHAR2(4000),
+    BODY VARCHAR2(4000),
+    ELAPSED_MS NUMBER(10),
+    CREATED_AT TIMESTAMP NOT NULL
+  )';
+EXCEPTION WHEN OTHERS THEN IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE SEQUENCE CMH.API_AUDIT_LOG_SEQ START WITH 1 INCREMENT BY 1 CACHE 100';
+EXCEPTION WHEN OTHERS THEN IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX CMH.IDX_API_AUDIT_CREATED ON CMH.API_AUDIT_LOG (CREATED_AT)';
+EXCEPTION WHEN OTHERS THEN IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX CMH.IDX_API_AUDIT_USER ON CMH.API_AUDIT_LOG (USERNAME, CREATED_AT)';
+EXCEPTION WHEN OTHERS THEN IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+DECLARE
+    v_hospital_user_exists NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO v_hospital_user_exists FROM ALL_USERS WHERE USERNAME = 'HOSPITAL';
+    IF v_hospital_user_exists > 0 THEN
+        EXECUTE IMMEDIATE 'GRANT SELECT, INSERT, UPDATE, DELETE ON CMH.API_AUDIT_LOG TO HOSPITAL';
+        EXECUTE IMMEDIATE 'GRANT SELECT ON CMH.API_AUDIT_LOG_SEQ TO HOSPITAL';
+    END IF;
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE IN (-1927, -1919) THEN NULL; ELSE RAISE; END IF;
+END;
+/
@@ -0,0 +1,22 @@
+DECLARE
+  PROCEDURE create_index_if_missing(p_owner VARCHAR2, p_index VARCHAR2, p_ddl VARCHAR2) IS
+    v_cnt NUMBER := 0;
+  BEGIN
+    SELECT COUNT(*)
+      INTO v_cnt
+      FROM ALL_INDEXES
+     WHERE OWNER = UPPER(p_owner)
+       AND INDEX_NAME = UPPER(p_index);
+
+    IF v_cnt = 0 THEN
+      EXECUTE IMMEDIATE p_ddl;
+    END IF;
+  END;
+BEGIN
+  -- Keyset order of GET /api/visits and /api/visits/page (CREATED_AT DESC, ID DESC).
+  create_index_if_missing('CMH', 'IDX_VISIT_REG_CREATED', 'CREATE INDEX CMH.IDX_VISIT_REG_CREATED ON CMH.VISIT_REG (CREATED_AT, ID)');
+  create_index_if_missing('CMH', 'IDX_VISIT_REG_DEPT_CREATED', 'CREATE INDEX CMH.IDX_VISIT_REG_DEPT_CREATED ON CMH.VISIT_REG (DEPT_CODE, CREATED_AT, ID)');
+  create_index_if_missing('CMH', 'IDX_VISIT_REG_DOCTOR_CREATED', 'CREATE INDEX CMH.IDX_VISIT_REG_DOCTOR_CREATED ON CMH.VISIT_REG (DOCTOR_ID, CREATED_AT, ID)');
+  create_index_if_missing('CMH', 'IDX_VISIT_REG_STATUS_CREATED', 'CREATE INDEX CMH.IDX_VISIT_REG_STATUS_CREATED ON CMH.VISIT_REG (STATUS, CREATED_AT, ID)');
+END;
+/
@@ -0,0 +1,10 @@
+-- Visit numbers are handed out in blocks of 50 (app.reception.visit-no.block-size).
+-- Starts above the existing VISIT_REG ids so new numbers never repeat ones derived from the id.
+DECLARE
+  v_start NUMBER;
+BEGIN
+  SELECT NVL(MAX(ID), 0) + 1 INTO v_start FROM CMH.VISIT_REG;
+  EXECUTE IMMEDIATE 'CREATE SEQUENCE CMH.VISIT_NO_SEQ START WITH ' || v_start || ' INCREMENT BY 50 NOCACHE';
+EXCEPTION WHEN OTHERS THEN IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
@@ -0,0 +1,11 @@
+-- History ids are handed out in blocks of 50 by HistoryJournal (app.history.id-block-size).
+-- The ID triggers only fire when ID is null, so rows inserted elsewhere still get a fresh NEXTVAL.
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER SEQUENCE CMH.VISIT_HISTORY_SEQ INCREMENT BY 50';
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER SEQUENCE CMH.MEDICAL_ENCOUNTER_HIS_SEQ INCREMENT BY 50';
+END;
+/
@@ -0,0 +1,21 @@
+DECLARE
+  PROCEDURE create_index_if_missing(p_owner VARCHAR2, p_index VARCHAR2, p_ddl VARCHAR2) IS
+    v_cnt NUMBER := 0;
+  BEGIN
+    SELECT COUNT(*)
+      INTO v_cnt
+      FROM ALL_INDEXES
+     WHERE OWNER = UPPER(p_owner)
+       AND INDEX_NAME = UPPER(p_index);
+
+    IF v_cnt = 0 THEN
+      EXECUTE IMMEDIATE p_ddl;
+    END IF;
+  END;
+BEGIN
+  -- GET /api/visits/history and /history/export (CHANGED_AT DESC, ID DESC, optional time range).
+  create_index_if_missing('CMH', 'IDX_VISIT_HISTORY_CHANGED', 'CREATE INDEX CMH.IDX_VISIT_HISTORY_CHANGED ON CMH.VISIT_HISTORY (CHANGED_AT, ID)');
+  -- GET /api/visits/{id}/history and the visitId filter.
+  create_index_if_missing('CMH', 'IDX_VISIT_HISTORY_VISIT', 'CREATE INDEX CMH.IDX_VISIT_HISTORY_VISIT ON CMH.VISIT_HISTORY (VISIT_ID, CHANGED_AT, ID)');
+END;
+/
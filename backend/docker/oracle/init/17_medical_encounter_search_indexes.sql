@@ -0,0 +1,20 @@
+DECLARE
+  PROCEDURE create_index_if_missing(p_owner VARCHAR2, p_index VARCHAR2, p_ddl VARCHAR2) IS
+    v_cnt NUMBER := 0;
+  BEGIN
+    SELECT COUNT(*)
+      INTO v_cnt
+      FROM ALL_INDEXES
+     WHERE OWNER = UPPER(p_owner)
+       AND INDEX_NAME = UPPER(p_index);
+
+    IF v_cnt = 0 THEN
+      EXECUTE IMMEDIATE p_ddl;
+    END IF;
+  END;
+BEGIN
+  -- Encounter search index catch-up (rows created or updated since the last sync).
+  create_index_if_missing('CMH', 'IDX_MEDICAL_ENCOUNTER_CREATED', 'CREATE INDEX CMH.IDX_MEDICAL_ENCOUNTER_CREATED ON CMH.MEDICAL_ENCOUNTER (CREATED_AT)');
+  create_index_if_missing('CMH', 'IDX_MEDICAL_ENCOUNTER_UPDATED', 'CREATE INDEX CMH.IDX_MEDICAL_ENCOUNTER_UPDATED ON CMH.MEDICAL_ENCOUNTER (UPDATED_AT)');
+END;
+/
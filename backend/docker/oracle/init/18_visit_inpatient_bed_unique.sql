@@ -0,0 +1,40 @@
+-- One active stay per bed across every node: ACTIVE_YN follows the visit (0 once it is cancelled)
+-- and the unique index only covers active rows that name a bed; all-NULL keys are not indexed.
+DECLARE
+    PROCEDURE exec_ddl_if_absent(p_check_sql IN VARCHAR2, p_ddl IN VARCHAR2) IS
+        v_cnt NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE p_check_sql INTO v_cnt;
+        IF v_cnt = 0 THEN
+            EXECUTE IMMEDIATE p_ddl;
+        END IF;
+    END;
+BEGIN
+    exec_ddl_if_absent(
+        'SELECT COUNT(*) FROM ALL_TAB_COLUMNS WHERE OWNER = ''CMH'' AND TABLE_NAME = ''VISIT_INPATIENT'' AND COLUMN_NAME = ''ACTIVE_YN''',
+        'ALTER TABLE CMH.VISIT_INPATIENT ADD (ACTIVE_YN NUMBER(1) DEFAULT 1 NOT NULL)'
+    );
+
+    EXECUTE IMMEDIATE
+        'UPDATE CMH.VISIT_INPATIENT i SET i.ACTIVE_YN = 0
+          WHERE EXISTS (SELECT 1 FROM CMH.VISIT_REG v WHERE v.ID = i.VISIT_ID AND v.STATUS = ''CANCELLED'')';
+    COMMIT;
+
+    exec_ddl_if_absent(
+        'SELECT COUNT(*) FROM ALL_INDEXES WHERE OWNER = ''CMH'' AND INDEX_NAME = ''UX_VISIT_INPATIENT_BED''',
+        'CREATE UNIQUE INDEX CMH.UX_VISIT_INPATIENT_BED ON CMH.VISIT_INPATIENT (
+            CASE WHEN ACTIVE_YN = 1 AND BED_NO IS NOT NULL THEN WARD_CODE END,
+            CASE WHEN ACTIVE_YN = 1 AND WARD_CODE IS NOT NULL AND BED_NO IS NOT NULL THEN NVL(ROOM_NO, ''-'') END,
+            CASE WHEN ACTIVE_YN = 1 AND WARD_CODE IS NOT NULL THEN BED_NO END
+        )'
+    );
+EXCEPTION
+    WHEN OTHERS THEN
+        -- ORA-01452: two active stays already share a bed; resolve them and rerun this script.
+        IF SQLCODE = -1452 THEN
+            DBMS_OUTPUT.PUT_LINE('UX_VISIT_INPATIENT_BED not created: duplicate active beds in CMH.VISIT_INPATIENT');
+        ELSE
+            RAISE;
+        END IF;
+END;
+/
@@ -0,0 +1,18 @@
+-- Normalized keyword text (name, patient no, diagnosis code, name initials) written by the application.
+-- The keyword LIKE fallback matches this column so it returns the same rows as the in-memory index;
+-- existing rows are filled in by the index build on the next startup.
+DECLARE
+  v_cnt NUMBER := 0;
+BEGIN
+  SELECT COUNT(*)
+    INTO v_cnt
+    FROM ALL_TAB_COLUMNS
+   WHERE OWNER = 'CMH'
+     AND TABLE_NAME = 'MEDICAL_ENCOUNTER'
+     AND COLUMN_NAME = 'SEARCH_TEXT';
+
+  IF v_cnt = 0 THEN
+    EXECUTE IMMEDIATE 'ALTER TABLE CMH.MEDICAL_ENCOUNTER ADD (SEARCH_TEXT VARCHAR2(1000))';
+  END IF;
+END;
+/
@@ -0,0 +1,55 @@
+-- Reservation slot capacity shared by every node: a booking holds one numbered seat of its slot and the
+-- primary key allows each seat once, so at most capacity bookings per slot can commit.
+-- SLOT_NO = minutes since 1970-01-01 / app.reception.slot.minutes; the backfill below assumes 15.
+DECLARE
+    PROCEDURE exec_ddl_if_absent(p_check_sql IN VARCHAR2, p_ddl IN VARCHAR2) IS
+        v_cnt NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE p_check_sql INTO v_cnt;
+        IF v_cnt = 0 THEN
+            EXECUTE IMMEDIATE p_ddl;
+        END IF;
+    END;
+BEGIN
+    exec_ddl_if_absent(
+        'SELECT COUNT(*) FROM ALL_TABLES WHERE OWNER = ''CMH'' AND TABLE_NAME = ''VISIT_RESERVATION_SEAT''',
+        'CREATE TABLE CMH.VISIT_RESERVATION_SEAT (
+            SCHEDULE_KEY VARCHAR2(60) NOT NULL,
+            SLOT_NO NUMBER(12) NOT NULL,
+            SEAT_NO NUMBER(4) NOT NULL,
+            VISIT_ID NUMBER NOT NULL,
+            CONSTRAINT PK_VISIT_RESERVATION_SEAT PRIMARY KEY (SCHEDULE_KEY, SLOT_NO, SEAT_NO),
+            CONSTRAINT UK_VISIT_RES_SEAT_VISIT UNIQUE (VISIT_ID)
+        )'
+    );
+
+    -- Seats for the live reservations made before this table existed.
+    EXECUTE IMMEDIATE
+        'INSERT INTO CMH.VISIT_RESERVATION_SEAT (SCHEDULE_KEY, SLOT_NO, SEAT_NO, VISIT_ID)
+         SELECT SCHEDULE_KEY, SLOT_NO, ROW_NUMBER() OVER (PARTITION BY SCHEDULE_KEY, SLOT_NO ORDER BY VISIT_ID), VISIT_ID
+           FROM (SELECT r.VISIT_ID,
+                        CASE WHEN TRIM(v.DOCTOR_ID) IS NOT NULL THEN ''D:'' || TRIM(v.DOCTOR_ID)
+                             ELSE ''T:'' || TRIM(v.DEPT_CODE) END AS SCHEDULE_KEY,
+                        FLOOR((CAST(r.SCHEDULED_AT AS DATE) - DATE ''1970-01-01'') * 1440 / 15) AS SLOT_NO
+                   FROM CMH.VISIT_RESERVATION r
+                   JOIN CMH.VISIT_REG v ON v.ID = r.VISIT_ID
+                  WHERE r.SCHEDULED_AT >= TRUNC(SYSDATE)
+                    AND (v.STATUS IS NULL OR v.STATUS <> ''CANCELLED'')
+                    AND (TRIM(v.DOCTOR_ID) IS NOT NULL OR TRIM(v.DEPT_CODE) IS NOT NULL))
+          WHERE NOT EXISTS (SELECT 1 FROM CMH.VISIT_RESERVATION_SEAT)';
+    COMMIT;
+END;
+/
+
+DECLARE
+    v_hospital_user_exists NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO v_hospital_user_exists FROM ALL_USERS WHERE USERNAME = 'HOSPITAL';
+    IF v_hospital_user_exists > 0 THEN
+        EXECUTE IMMEDIATE 'GRANT SELECT, INSERT, UPDATE, DELETE ON CMH.VISIT_RESERVATION_SEAT TO HOSPITAL';
+    END IF;
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE IN (-1927, -1919) THEN NULL; ELSE RAISE; END IF;
+END;
+/
@@ -1,5 +1,11 @@
 package app.common;
 
+import app.common.cache.BinaryRedisSerializer;
+import app.common.cache.CacheInvalidationBus;
+import app.common.cache.CacheMetricsRegistry;
+import app.common.cache.CoalescingCacheManager;
+import app.common.cache.LayeredCacheProperties;
+import app.common.cache.TwoLevelCacheManager;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
@@ -7,23 +13,46 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.CacheKeyPrefix;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, LayeredCacheProperties properties) {
+        return new CacheInvalidationBus(redisTemplate, properties.getInvalidationChannel());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus cacheInvalidationBus,
+                                                                           LayeredCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     CacheMetricsRegistry cacheMetricsRegistry,
+                                     LayeredCacheProperties properties) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -36,9 +65,7 @@ public class RedisConfig {
 
         GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(mapper);
 
-        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
-                .disableCachingNullValues()
-                .entryTtl(Duration.ofSeconds(30))
+        RedisCacheConfiguration base = RedisCacheConfiguration.defaultCacheConfig()
                 .computePrefixWith(CacheKeyPrefix.simple())
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
@@ -48,11 +75,41 @@ public class RedisConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 serializer)
                 );
+        RedisCacheConfiguration configuration = base
+                .disableCachingNullValues()
+                .entryTtl(properties.getDefaultTtl());
+
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        properties.getSpecs().forEach((name, spec) -> {
+            RedisCacheConfiguration cacheConfiguration = base.entryTtl(properties.ttlOf(name));
+            if (!spec.isCacheNulls()) {
+                cacheConfiguration = cacheConfiguration.disableCachingNullValues();
+            }
+            if ("binary".equalsIgnoreCase(spec.getSerializer())) {
+                if (spec.getValueType() == null || spec.getValueType().isBlank()) {
+                    throw new IllegalArgumentException("app.cache.specs." + name + ".value-type is required for the binary serializer");
+                }
+                BinaryRedisSerializer binary = new BinaryRedisSerializer(spec.getValueType(), spec.getCompressThreshold());
+                cacheConfiguration = cacheConfiguration.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(binary));
+            }
+            cacheConfigurations.put(name, cacheConfiguration);
+        });
 
-        return RedisCacheManager
+        RedisCacheManager redisCacheManager = RedisCacheManager
                 .RedisCacheManagerBuilder
                 .fromConnectionFactory(connectionFactory)
                 .cacheDefaults(configuration)
+                .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        redisCacheManager.initializeCaches();
+
+        CacheManager cacheManager = redisCacheManager;
+        if (properties.isLocalEnabled()) {
+            cacheManager = new TwoLevelCacheManager(redisCacheManager, cacheInvalidationBus, cacheMetricsRegistry, properties);
+        }
+
+        // Concurrent misses on @Cacheable(sync = true) share one load per key.
+        return new CoalescingCacheManager(cacheManager, cacheMetricsRegistry, properties);
     }
 }
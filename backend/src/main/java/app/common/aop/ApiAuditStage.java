@@ -0,0 +1,72 @@
+package app.common.aop;
+
+import app.common.audit.AuditEvent;
+import app.common.audit.AuditWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.WebUtils;
+
+@Component
+@Order(400)
+public class ApiAuditStage implements ApiPipelineStage {
+
+    private final AuditWriter auditWriter;
+
+    @Value("${app.audit.max-body-bytes:4096}")
+    private int maxBodyBytes;
+
+    public ApiAuditStage(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
+    }
+
+    // Audit log for write operations (POST/PUT/DELETE). The event is queued; AuditWriter does the I/O.
+    @Override
+    public Object handle(ApiRequestContext context, ApiPipelineChain chain) throws Throwable {
+        if (context.isRead()) {
+            return chain.proceed(context);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = chain.proceed(context);
+            int status = result instanceof ResponseEntity
+                    ? ((ResponseEntity<?>) result).getStatusCodeValue()
+                    : HttpStatus.OK.value();
+            submit(context, status, start);
+            return result;
+        } catch (ResponseStatusException ex) {
+            submit(context, ex.getRawStatusCode(), start);
+            throw ex;
+        } catch (Throwable ex) {
+            submit(context, HttpStatus.INTERNAL_SERVER_ERROR.value(), start);
+            throw ex;
+        }
+    }
+
+    private void submit(ApiRequestContext context, int status, long start) {
+        auditWriter.submit(new AuditEvent(
+                context.getMethod(),
+                context.getUri(),
+                context.getRoute(),
+                status,
+                context.getUser(),
+                context.getClientIp(),
+                context.getRequest().getHeader("User-Agent"),
+                context.getMaskedParams(),
+                maskedBody(context),
+                (System.nanoTime() - start) / 1_000_000L
+        ));
+    }
+
+    // JSON body captured by AuditBodyCachingFilter, masked by field name.
+    private String maskedBody(ApiRequestContext context) {
+        ContentCachingRequestWrapper wrapper = WebUtils.getNativeRequest(context.getRequest(), ContentCachingRequestWrapper.class);
+        if (wrapper == null) return "";
+        return PiiMaskingUtil.maskJson(wrapper.getContentAsByteArray(), maxBodyBytes);
+    }
+}
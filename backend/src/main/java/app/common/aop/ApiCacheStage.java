@@ -0,0 +1,52 @@
+package app.common.aop;
+
+import app.common.cache.ApiResponseCache;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Order(500)
+public class ApiCacheStage implements ApiPipelineStage {
+
+    // GET responses are cached per resource tag; writes only evict their own tag.
+    private final ApiResponseCache responseCache;
+
+    public ApiCacheStage(ApiResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Object handle(ApiRequestContext context, ApiPipelineChain chain) throws Throwable {
+        if (context.isRead()) {
+            if (!responseCache.isCacheable(context.getUri())) {
+                return chain.proceed(context);
+            }
+            return responseCache.getOrLoad(context.getTag(), buildCacheKey(context), () -> chain.proceed(context));
+        }
+
+        // On write operations, evict only the touched resource once the write has returned. A read
+        // that loaded before the write committed may finish after this eviction; ApiResponseCache
+        // drops its result because the tag's generation moved while it was loading.
+        try {
+            return chain.proceed(context);
+        } finally {
+            responseCache.invalidate(context.getTag());
+        }
+    }
+
+    private String buildCacheKey(ApiRequestContext context) {
+        StringBuilder sb = new StringBuilder(context.getUri()).append('?');
+        Map<String, String[]> params = new TreeMap<>(context.getRequest().getParameterMap());
+        params.forEach((key, values) -> {
+            sb.append(key).append('=');
+            if (values != null) {
+                sb.append(String.join(",", values));
+            }
+            sb.append('&');
+        });
+        return sb.toString();
+    }
+}
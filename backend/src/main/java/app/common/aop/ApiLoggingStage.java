@@ -0,0 +1,31 @@
+package app.common.aop;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.Signature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(200)
+@Slf4j
+public class ApiLoggingStage implements ApiPipelineStage {
+
+    private static final String TYPE = "Controller  \t:  ";
+
+    @Override
+    public Object handle(ApiRequestContext context, ApiPipelineChain chain) throws Throwable {
+        Signature signature = context.getJoinPoint().getSignature();
+        String name = signature.getDeclaringTypeName();
+        String methodName = signature.getName();
+        log.debug("{}{}.{}() START", TYPE, name, methodName);
+
+        try {
+            Object result = chain.proceed(context);
+            log.debug("{}{}.{}() END", TYPE, name, methodName);
+            return result;
+        } catch (Throwable t) {
+            log.error("{}{}.{}() ERROR: {}", TYPE, name, methodName, t.getMessage(), t);
+            throw t;
+        }
+    }
+}
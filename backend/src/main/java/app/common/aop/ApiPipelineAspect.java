@@ -0,0 +1,81 @@
+package app.common.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single entry point for every RestController call.
+ * Builds the ApiRequestContext once and runs the ordered stages:
+ * timing -> logging -> rate limit -> audit -> cache -> controller.
+ */
+@Aspect
+@Component
+public class ApiPipelineAspect {
+
+    private final List<ApiPipelineStage> stages;
+    private final ConcurrentHashMap<Class<?>, String> tags = new ConcurrentHashMap<>();
+
+    public ApiPipelineAspect(List<ApiPipelineStage> stages) {
+        this.stages = List.copyOf(stages);
+    }
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object handle(ProceedingJoinPoint joinPoint) throws Throwable {
+        HttpServletRequest request = resolveRequest();
+        if (request == null) {
+            return joinPoint.proceed();
+        }
+        ApiRequestContext context = new ApiRequestContext(joinPoint, request, resolveRoute(request), resolveTag(joinPoint, request));
+        return new ApiPipelineChain(stages).proceed(context);
+    }
+
+    private String resolveRoute(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    // Tag = controller class level mapping (e.g. /api/visits), falling back to the first two path segments.
+    private String resolveTag(ProceedingJoinPoint joinPoint, HttpServletRequest request) {
+        Object target = joinPoint.getTarget();
+        String tag = target == null ? "" : tags.computeIfAbsent(ClassUtils.getUserClass(target), t -> {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(t, RequestMapping.class);
+            if (mapping != null && mapping.path().length > 0) {
+                return trimTrailingSlash(mapping.path()[0]);
+            }
+            return "";
+        });
+        return tag.isEmpty() ? fallbackTag(request.getRequestURI()) : tag;
+    }
+
+    private String fallbackTag(String uri) {
+        String[] parts = uri.split("/");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i < parts.length && i <= 2; i++) {
+            sb.append('/').append(parts[i]);
+        }
+        return sb.toString();
+    }
+
+    private String trimTrailingSlash(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private HttpServletRequest resolveRequest() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (!(attrs instanceof ServletRequestAttributes)) return null;
+        return ((ServletRequestAttributes) attrs).getRequest();
+    }
+}
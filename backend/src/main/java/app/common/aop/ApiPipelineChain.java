@@ -0,0 +1,20 @@
+package app.common.aop;
+
+import java.util.List;
+
+public final class ApiPipelineChain {
+
+    private final List<ApiPipelineStage> stages;
+    private int index;
+
+    ApiPipelineChain(List<ApiPipelineStage> stages) {
+        this.stages = stages;
+    }
+
+    public Object proceed(ApiRequestContext context) throws Throwable {
+        if (index < stages.size()) {
+            return stages.get(index++).handle(context, this);
+        }
+        return context.getJoinPoint().proceed();
+    }
+}
@@ -0,0 +1,10 @@
+package app.common.aop;
+
+/**
+ * One step of the controller request pipeline. Stages are Spring beans ordered with @Order
+ * and must call chain.proceed(context) to continue (or return / throw to short-circuit).
+ */
+public interface ApiPipelineStage {
+
+    Object handle(ApiRequestContext context, ApiPipelineChain chain) throws Throwable;
+}
@@ -0,0 +1,66 @@
+package app.common.aop;
+
+import app.common.ratelimit.RateLimitProperties;
+import app.common.ratelimit.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ResponseStatusException;
+
+@Component
+@Order(300)
+@Slf4j
+public class ApiRateLimitStage implements ApiPipelineStage {
+
+    // Token buckets per rule (route group) and per user / client IP; keys never contain the raw URI.
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ApiRateLimitStage(RateLimitProperties properties, RateLimiter rateLimiter) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Object handle(ApiRequestContext context, ApiPipelineChain chain) throws Throwable {
+        if (!properties.isEnabled()) {
+            return chain.proceed(context);
+        }
+
+        RateLimitProperties.Rule rule = matchRule(context.getMethod(), context.getUri());
+        if (rule == null) {
+            return chain.proceed(context);
+        }
+
+        String user = context.getUser();
+        if (rule.getPerUser() != null && user != null
+                && !rateLimiter.tryAcquire(rule.getName() + "|user:" + user, rule.getPerUser())) {
+            log.warn("[RATE-LIMIT] rule={} user={} {} {}", rule.getName(), PiiMaskingUtil.maskGeneric(user), context.getMethod(), context.getUri());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+        }
+        String ip = context.getClientIp();
+        if (rule.getPerIp() != null
+                && !rateLimiter.tryAcquire(rule.getName() + "|ip:" + ip, rule.getPerIp())) {
+            log.warn("[RATE-LIMIT] rule={} ip={} {} {}", rule.getName(), ip, context.getMethod(), context.getUri());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+        }
+        return chain.proceed(context);
+    }
+
+    private RateLimitProperties.Rule matchRule(String method, String uri) {
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if (!rule.getMethods().isEmpty() && rule.getMethods().stream().noneMatch(method::equalsIgnoreCase)) {
+                continue;
+            }
+            for (String pattern : rule.getPaths()) {
+                if (pathMatcher.match(pattern.trim(), uri)) {
+                    return rule;
+                }
+            }
+        }
+        return null;
+    }
+}
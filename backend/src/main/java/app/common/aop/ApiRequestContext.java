@@ -0,0 +1,92 @@
+package app.common.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Per-request values shared by every pipeline stage, resolved once per controller call.
+ * Only used on the request thread, so lazy fields need no synchronization.
+ */
+public final class ApiRequestContext {
+
+    private final ProceedingJoinPoint joinPoint;
+    private final HttpServletRequest request;
+    private final String method;
+    private final String uri;
+    private final String route;
+    private final String tag;
+
+    private String maskedParams;
+    private String user;
+    private boolean userResolved;
+
+    ApiRequestContext(ProceedingJoinPoint joinPoint, HttpServletRequest request, String route, String tag) {
+        this.joinPoint = joinPoint;
+        this.request = request;
+        this.method = request.getMethod();
+        this.uri = request.getRequestURI();
+        this.route = route;
+        this.tag = tag;
+    }
+
+    public ProceedingJoinPoint getJoinPoint() {
+        return joinPoint;
+    }
+
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    // URI template of the handler, e.g. /api/visits/{visitId}.
+    public String getRoute() {
+        return route;
+    }
+
+    // Resource tag = controller base path, e.g. /api/visits.
+    public String getTag() {
+        return tag;
+    }
+
+    public boolean isRead() {
+        return "GET".equalsIgnoreCase(method);
+    }
+
+    // Browser address: Tomcat's RemoteIpValve (server.forward-headers-strategy=native) replaces the address of
+    // a trusted proxy such as the Next.js rewrite with the X-Forwarded-For client. The header is not read here,
+    // so a client talking to the backend directly cannot choose its own address.
+    public String getClientIp() {
+        return request.getRemoteAddr();
+    }
+
+    public String getMaskedParams() {
+        if (maskedParams == null) {
+            maskedParams = PiiMaskingUtil.toMaskedQueryString(request.getParameterMap());
+        }
+        return maskedParams;
+    }
+
+    // Authenticated username, or null for anonymous requests.
+    public String getUser() {
+        if (!userResolved) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                user = authentication.getName();
+            }
+            userResolved = true;
+        }
+        return user;
+    }
+}
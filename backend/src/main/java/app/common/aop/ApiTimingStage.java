@@ -0,0 +1,71 @@
+package app.common.aop;
+
+import app.common.metrics.ApiMetricsRegistry;
+import app.common.metrics.RouteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+@Component
+@Order(100)
+@Slf4j
+public class ApiTimingStage implements ApiPipelineStage {
+
+    private final ApiMetricsRegistry metricsRegistry;
+
+    @Value("${app.api-metrics.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    public ApiTimingStage(ApiMetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    // Records latency into per-route histograms; only slow requests are logged at INFO level.
+    @Override
+    public Object handle(ApiRequestContext context, ApiPipelineChain chain) throws Throwable {
+        RouteMetrics metrics = metricsRegistry.route(context.getMethod(), context.getRoute());
+
+        metrics.begin();
+        long start = System.nanoTime();
+        boolean error = false;
+        try {
+            Object result = chain.proceed(context);
+            error = isServerError(result);
+            return result;
+        } catch (Throwable ex) {
+            error = isServerError(ex);
+            throw ex;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            metrics.end(elapsedNanos, error);
+            long elapsedMs = elapsedNanos / 1_000_000;
+            if (elapsedMs >= slowThresholdMs) {
+                log.info("[API] {} {} - {} ms (slow)", context.getMethod(), resolveUri(context), elapsedMs);
+            } else if (log.isDebugEnabled()) {
+                log.debug("[API] {} {} - {} ms", context.getMethod(), resolveUri(context), elapsedMs);
+            }
+        }
+    }
+
+    private String resolveUri(ApiRequestContext context) {
+        String maskedParams = context.getMaskedParams();
+        return maskedParams.isEmpty() ? context.getUri() : context.getUri() + "?" + maskedParams;
+    }
+
+    private boolean isServerError(Object result) {
+        return result instanceof ResponseEntity
+                && ((ResponseEntity<?>) result).getStatusCode().is5xxServerError();
+    }
+
+    // Mirrors the exception handlers: ResponseStatusException keeps its status and
+    // IllegalArgumentException becomes 400; anything else ends up as a 500.
+    private boolean isServerError(Throwable ex) {
+        if (ex instanceof ResponseStatusException) {
+            return ((ResponseStatusException) ex).getStatus().is5xxServerError();
+        }
+        return !(ex instanceof IllegalArgumentException);
+    }
+}
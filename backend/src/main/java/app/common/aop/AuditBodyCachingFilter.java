@@ -0,0 +1,48 @@
+package app.common.aop;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Keeps a bounded copy of JSON write bodies while the controller reads them,
+ * so ApiAuditStage can log the masked payload afterwards.
+ */
+@Component
+public class AuditBodyCachingFilter extends OncePerRequestFilter {
+
+    @Value("${app.audit.log-body:true}")
+    private boolean logBody;
+
+    @Value("${app.audit.max-body-bytes:4096}")
+    private int maxBodyBytes;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (logBody && isJsonWrite(request)) {
+            filterChain.doFilter(new ContentCachingRequestWrapper(request, maxBodyBytes), response);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isJsonWrite(HttpServletRequest request) {
+        if ("GET".equalsIgnoreCase(request.getMethod())) return false;
+        String contentType = request.getContentType();
+        if (contentType == null) return false;
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
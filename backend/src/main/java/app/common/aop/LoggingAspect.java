@@ -11,17 +11,12 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class LoggingAspect {
 
-    @Around("execution(* app..controller.*Controller.*(..)) || execution(* app..service.*Impl.*(..))")
+    // Controllers are logged by ApiLoggingStage in the request pipeline.
+    @Around("execution(* app..service.*Impl.*(..))")
     public Object logPrint(ProceedingJoinPoint joinPoint) throws Throwable {
-        String type = "";
+        String type = "ServiceImpl  \t:  ";
         String name = joinPoint.getSignature().getDeclaringTypeName();
 
-        if (name.contains("Controller")) {
-            type = "Controller  \t:  ";
-        } else if (name.contains("Service")) {
-            type = "ServiceImpl  \t:  ";
-        }
-
         String methodName = joinPoint.getSignature().getName();
         log.debug("{}{}.{}() START", type, name, methodName);
 
@@ -1,62 +1,281 @@
 package app.common.aop;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class PiiMaskingUtil {
 
+    // Parameter names are classified once; the table is capped so random names cannot grow it forever.
+    private static final int MAX_CACHED_KEYS = 1024;
+    private static final ConcurrentHashMap<String, Strategy> KEY_STRATEGIES = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
     private PiiMaskingUtil() {
     }
 
+    enum Strategy {
+        NONE, PHONE, EMAIL, GENERIC, RRN, BIRTH, ADDRESS, REDACT
+    }
+
     // Mask common PII fields for logs.
     public static String maskParam(String key, String value) {
         if (value == null) return null;
-        String k = key == null ? "" : key.toLowerCase();
         String v = value.trim();
         if (v.isEmpty()) return v;
 
-        if (k.contains("phone") || k.contains("tel")) {
-            return maskPhone(v);
-        }
-        if (k.contains("email")) {
-            return maskEmail(v);
-        }
-        if (k.contains("username") || k.contains("staffid") || k.contains("user")) {
-            return maskGeneric(v);
-        }
-        return v;
+        Strategy strategy = classify(key);
+        if (strategy == Strategy.NONE) return v;
+        StringBuilder sb = new StringBuilder(v.length() + 4);
+        appendMasked(sb, strategy, v);
+        return sb.toString();
     }
 
     public static String maskPhone(String value) {
-        String digits = value.replaceAll("\\D", "");
-        if (digits.length() < 7) return "***";
-        String head = digits.substring(0, 3);
-        String tail = digits.substring(digits.length() - 2);
-        return head + "****" + tail;
+        StringBuilder sb = new StringBuilder(9);
+        appendMaskedPhone(sb, value);
+        return sb.toString();
     }
 
     public static String maskEmail(String value) {
-        int at = value.indexOf('@');
-        if (at <= 1) return "***";
-        String name = value.substring(0, at);
-        String domain = value.substring(at);
-        return name.substring(0, 1) + "***" + domain;
+        StringBuilder sb = new StringBuilder(value.length() + 3);
+        appendMaskedEmail(sb, value);
+        return sb.toString();
     }
 
     public static String maskGeneric(String value) {
-        if (value.length() <= 2) return "*";
-        return value.substring(0, 1) + "***" + value.substring(value.length() - 1);
+        StringBuilder sb = new StringBuilder(5);
+        appendMaskedGeneric(sb, value);
+        return sb.toString();
     }
 
     public static String toMaskedQueryString(Map<String, String[]> params) {
         if (params == null || params.isEmpty()) return "";
-        StringBuilder sb = new StringBuilder();
-        params.forEach((key, values) -> {
-            if (values == null || values.length == 0) return;
-            String masked = maskParam(key, values[0]);
-            if (sb.length() > 0) sb.append("&");
-            sb.append(key).append("=").append(masked);
-        });
+        StringBuilder sb = borrowBuffer();
+        for (Map.Entry<String, String[]> entry : params.entrySet()) {
+            String[] values = entry.getValue();
+            if (values == null || values.length == 0) continue;
+            if (sb.length() > 0) sb.append('&');
+            sb.append(entry.getKey()).append('=');
+            appendParam(sb, entry.getKey(), values[0]);
+        }
         return sb.toString();
     }
-}
 
+    /**
+     * Streams a JSON request body and masks PII values by field name (e.g. patient registration).
+     * Bodies longer than maxBytes are cut and the output is closed and marked as truncated.
+     */
+    public static String maskJson(byte[] body, int maxBytes) {
+        if (body == null || body.length == 0) return "";
+        int length = Math.min(body.length, maxBytes);
+        StringWriter out = new StringWriter(length + 16);
+        boolean complete = true;
+        try (JsonParser parser = JSON.createParser(body, 0, length);
+             JsonGenerator generator = JSON.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token.isScalarValue()) {
+                    Strategy strategy = classify(fieldNameOf(parser.getParsingContext()));
+                    if (strategy != Strategy.NONE && token != JsonToken.VALUE_NULL) {
+                        StringBuilder sb = new StringBuilder(16);
+                        appendMasked(sb, strategy, parser.getText().trim());
+                        generator.writeString(sb.toString());
+                        continue;
+                    }
+                }
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (IOException ex) {
+            complete = false;
+        }
+        String masked = out.toString();
+        if (complete && length == body.length) return masked;
+        return masked.isEmpty() ? "(unparseable body)" : masked + "...(truncated)";
+    }
+
+    static Strategy classify(String key) {
+        if (key == null) return Strategy.NONE;
+        Strategy strategy = KEY_STRATEGIES.get(key);
+        if (strategy != null) return strategy;
+        strategy = computeStrategy(key.toLowerCase(Locale.ROOT));
+        if (KEY_STRATEGIES.size() < MAX_CACHED_KEYS) {
+            KEY_STRATEGIES.put(key, strategy);
+        }
+        return strategy;
+    }
+
+    private static Strategy computeStrategy(String k) {
+        if (k.contains("password") || k.contains("token") || k.contains("secret")) return Strategy.REDACT;
+        if (k.contains("phone") || k.contains("tel")) return Strategy.PHONE;
+        if (k.contains("email")) return Strategy.EMAIL;
+        if (k.contains("rrn") || k.contains("resident") || k.contains("jumin") || k.contains("ssn")) return Strategy.RRN;
+        if (k.contains("birth")) return Strategy.BIRTH;
+        if (k.contains("address")) return Strategy.ADDRESS;
+        if (k.contains("username") || k.contains("staffid") || k.contains("user")) return Strategy.GENERIC;
+        if (k.equals("name") || k.endsWith("patientname") || k.endsWith("guardianname")) return Strategy.GENERIC;
+        return Strategy.NONE;
+    }
+
+    private static String fieldNameOf(JsonStreamContext context) {
+        if (context.inArray() && context.getParent() != null) {
+            return context.getParent().getCurrentName();
+        }
+        return context.getCurrentName();
+    }
+
+    private static void appendParam(StringBuilder sb, String key, String value) {
+        if (value == null) {
+            sb.append((String) null);
+            return;
+        }
+        Strategy strategy = classify(key);
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        if (start == end || strategy == Strategy.NONE) {
+            sb.append(value, start, end);
+            return;
+        }
+        appendMasked(sb, strategy, start == 0 && end == value.length() ? value : value.substring(start, end));
+    }
+
+    private static void appendMasked(StringBuilder sb, Strategy strategy, String v) {
+        if (v.isEmpty()) return;
+        switch (strategy) {
+            case PHONE:
+                appendMaskedPhone(sb, v);
+                break;
+            case EMAIL:
+                appendMaskedEmail(sb, v);
+                break;
+            case GENERIC:
+                appendMaskedGeneric(sb, v);
+                break;
+            case RRN:
+                appendMaskedRrn(sb, v);
+                break;
+            case BIRTH:
+                appendMaskedBirth(sb, v);
+                break;
+            case ADDRESS:
+                appendMaskedAddress(sb, v);
+                break;
+            case REDACT:
+                sb.append("[REDACTED]");
+                break;
+            default:
+                sb.append(v);
+        }
+    }
+
+    private static void appendMaskedPhone(StringBuilder sb, String value) {
+        int digits = countDigits(value);
+        if (digits < 7) {
+            sb.append("***");
+            return;
+        }
+        int seen = 0;
+        for (int i = 0; i < value.length() && seen < 3; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+                seen++;
+            }
+        }
+        sb.append("****");
+        seen = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (seen >= digits - 2) sb.append(c);
+                seen++;
+            }
+        }
+    }
+
+    private static void appendMaskedEmail(StringBuilder sb, String value) {
+        int at = value.indexOf('@');
+        if (at <= 1) {
+            sb.append("***");
+            return;
+        }
+        sb.append(value.charAt(0)).append("***").append(value, at, value.length());
+    }
+
+    private static void appendMaskedGeneric(StringBuilder sb, String value) {
+        if (value.length() <= 2) {
+            sb.append('*');
+            return;
+        }
+        sb.append(value.charAt(0)).append("***").append(value.charAt(value.length() - 1));
+    }
+
+    // Resident registration number: keep the birth date part only (e.g. 900101-*******).
+    private static void appendMaskedRrn(StringBuilder sb, String value) {
+        if (countDigits(value) < 7) {
+            sb.append("***");
+            return;
+        }
+        int seen = 0;
+        for (int i = 0; i < value.length() && seen < 6; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+                seen++;
+            }
+        }
+        sb.append("-*******");
+    }
+
+    // Keep the year only (e.g. 1990-**-**).
+    private static void appendMaskedBirth(StringBuilder sb, String value) {
+        if (value.length() < 4) {
+            sb.append("***");
+            return;
+        }
+        sb.append(value, 0, 4).append("-**-**");
+    }
+
+    // Keep the first word (city / province) only.
+    private static void appendMaskedAddress(StringBuilder sb, String value) {
+        int space = value.indexOf(' ');
+        if (space <= 0) {
+            sb.append("***");
+            return;
+        }
+        sb.append(value, 0, space).append(" ***");
+    }
+
+    private static int countDigits(String value) {
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') digits++;
+        }
+        return digits;
+    }
+
+    private static StringBuilder borrowBuffer() {
+        StringBuilder sb = BUFFER.get();
+        if (sb.capacity() > MAX_BUFFER_CAPACITY) {
+            sb = new StringBuilder(256);
+            BUFFER.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+}
@@ -0,0 +1,36 @@
+package app.common.audit;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class AuditEvent {
+
+    private final String method;
+    private final String uri;
+    private final String route;
+    private final int status;
+    private final String username;
+    private final String clientIp;
+    private final String userAgent;
+    private final String params;
+    private final String body;
+    private final long elapsedMs;
+    private final LocalDateTime createdAt;
+
+    public AuditEvent(String method, String uri, String route, int status, String username, String clientIp,
+                      String userAgent, String params, String body, long elapsedMs) {
+        this.method = method;
+        this.uri = uri;
+        this.route = route;
+        this.status = status;
+        this.username = username;
+        this.clientIp = clientIp;
+        this.userAgent = userAgent;
+        this.params = params;
+        this.body = body;
+        this.elapsedMs = elapsedMs;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,24 @@
+package app.common.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    // jdbc (CMH.API_AUDIT_LOG) or log (application log only).
+    private String sink = "jdbc";
+
+    // Ring buffer slots, rounded up to a power of two. Events are dropped (and counted) when it is full.
+    private int capacity = 8192;
+
+    // Max events per JDBC batch.
+    private int batchSize = 200;
+
+    // Max time an event waits in the buffer before the writer flushes it.
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
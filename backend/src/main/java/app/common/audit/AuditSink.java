@@ -0,0 +1,8 @@
+package app.common.audit;
+
+import java.util.List;
+
+public interface AuditSink {
+
+    void write(List<AuditEvent> events);
+}
@@ -0,0 +1,143 @@
+package app.common.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes audit events off the request thread. Request threads only offer() into the ring buffer;
+ * a single daemon thread drains it and hands batches to the configured sink.
+ * When the buffer is full the new event is dropped and counted, so a slow database never slows down writes.
+ */
+@Slf4j
+@Component
+public class AuditWriter {
+
+    private final AuditSink sink;
+    private final AuditRingBuffer buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public AuditWriter(AuditSink sink, AuditProperties properties) {
+        this.sink = sink;
+        this.buffer = new AuditRingBuffer(Math.max(16, properties.getCapacity()));
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.flushIntervalNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), properties.getFlushInterval().toNanos());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (thread != null && thread.isAlive()) {
+            log.warn("[AUDIT] writer did not stop in time, {} events left in buffer", buffer.size());
+            return;
+        }
+        // Whatever the worker did not get to before shutdown.
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    public void submit(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        enqueued.increment();
+        if (buffer.size() >= batchSize) {
+            Thread thread = worker;
+            if (thread != null) LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        try {
+            sink.write(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException ex) {
+            // Not retried: a failing sink would otherwise fill the buffer and stall everything behind it.
+            failed.add(batch.size());
+            log.warn("[AUDIT] sink failed, {} events written to log instead: {}", batch.size(), ex.getMessage());
+            for (AuditEvent event : batch) {
+                LogAuditSink.log(event);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+}
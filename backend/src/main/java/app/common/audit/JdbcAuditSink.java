@@ -0,0 +1,57 @@
+package app.common.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "app.audit", name = "sink", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO CMH.API_AUDIT_LOG (ID, METHOD, URI, ROUTE, STATUS, USERNAME, CLIENT_IP, USER_AGENT, PARAMS, BODY, ELAPSED_MS, CREATED_AT) "
+                    + "VALUES (CMH.API_AUDIT_LOG_SEQ.NEXTVAL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcAuditSink(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        jdbc.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getMethod());
+            ps.setString(2, cut(event.getUri(), 500));
+            ps.setString(3, cut(event.getRoute(), 500));
+            ps.setInt(4, event.getStatus());
+            ps.setString(5, cut(event.getUsername(), 100));
+            ps.setString(6, cut(event.getClientIp(), 64));
+            ps.setString(7, cut(event.getUserAgent(), 500));
+            ps.setString(8, cut(event.getParams(), 4000));
+            ps.setString(9, cut(event.getBody(), 4000));
+            ps.setLong(10, event.getElapsedMs());
+            if (event.getCreatedAt() == null) {
+                ps.setNull(11, Types.TIMESTAMP);
+            } else {
+                ps.setTimestamp(11, Timestamp.valueOf(event.getCreatedAt()));
+            }
+        });
+    }
+
+    // VARCHAR2 limits are in bytes; Korean text takes 3 bytes per char in AL32UTF8.
+    private String cut(String value, int maxBytes) {
+        if (value == null || value.length() * 3 <= maxBytes) return value;
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            bytes += c < 0x80 ? 1 : (c < 0x800 ? 2 : 3);
+            if (bytes > maxBytes) return value.substring(0, i);
+        }
+        return value;
+    }
+}
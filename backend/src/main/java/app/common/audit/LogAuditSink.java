@@ -0,0 +1,26 @@
+package app.common.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.audit", name = "sink", havingValue = "log")
+public class LogAuditSink implements AuditSink {
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            log(event);
+        }
+    }
+
+    static void log(AuditEvent event) {
+        log.info("[AUDIT] {} {} status={} user={} ip={} ua={} params={} body={} elapsed={}ms",
+                event.getMethod(), event.getUri(), event.getStatus(), event.getUsername(), event.getClientIp(),
+                event.getUserAgent(), event.getParams(), event.getBody(), event.getElapsedMs());
+    }
+}
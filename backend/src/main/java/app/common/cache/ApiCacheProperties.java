@@ -0,0 +1,33 @@
+package app.common.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.api-cache")
+public class ApiCacheProperties {
+
+    private boolean enabled = true;
+
+    // Default TTL for routes without an explicit entry in ttl.
+    private Duration defaultTtl = Duration.ofSeconds(10);
+
+    // Upper bound of the summed entry weights (roughly: cached list rows).
+    private long maxWeight = 50_000L;
+
+    // Per-route TTL keyed by controller base path, e.g. [/api/menus]=5m.
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    // Extra tags to evict when a route is written, e.g. [/api/patients]=/api/visits.
+    private Map<String, List<String>> dependencies = new HashMap<>();
+
+    // Ant patterns that are never cached (user specific responses).
+    private List<String> excludedPaths = new ArrayList<>();
+}
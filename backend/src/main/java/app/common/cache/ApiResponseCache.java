@@ -0,0 +1,239 @@
+package app.common.cache;
+
+import app.common.ApiResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded response cache for GET endpoints.
+ * Entries are grouped by resource tag (controller base path, e.g. /api/visits) so a write
+ * only evicts the entries of the resource it touched instead of the whole cache.
+ *
+ * Every tag has a generation that an eviction bumps. A load captures the generation of its tag
+ * before calling the controller and its result is only kept if no eviction happened meanwhile, so
+ * a read that raced a write cannot put the pre-write response back after the eviction.
+ * Evictions are broadcast over the CacheInvalidationBus so the other nodes drop the tag as well.
+ */
+@Component
+@Slf4j
+public class ApiResponseCache {
+
+    // Cache name on the invalidation bus; the key is the evicted tag.
+    private static final String CACHE_NAME = "api-response";
+
+    private final ApiCacheProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, CachedResponse> cache;
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong clearGeneration = new AtomicLong();
+    private final CacheInvalidationBus bus;
+
+    // Node-local: evictions are not broadcast.
+    public ApiResponseCache(ApiCacheProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public ApiResponseCache(ApiCacheProperties properties, CacheInvalidationBus bus) {
+        this.properties = properties;
+        this.bus = bus;
+        if (bus != null) {
+            bus.subscribe(this::onRemoteInvalidate);
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeight())
+                .weigher((String key, CachedResponse entry) -> entry.weight)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public boolean isCacheable(String uri) {
+        if (!properties.isEnabled()) return false;
+        for (String pattern : properties.getExcludedPaths()) {
+            if (pathMatcher.match(pattern.trim(), uri)) return false;
+        }
+        return true;
+    }
+
+    public Object get(String key) {
+        CachedResponse entry = cache.getIfPresent(key);
+        return entry == null ? null : entry.value;
+    }
+
+    // Concurrent misses for the same key wait for one in-flight load and share its result.
+    public Object getOrLoad(String tag, String key, SingleFlight.Loader<Object> loader) throws Throwable {
+        Object cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.execute(key, () -> {
+            Object current = get(key);
+            if (current != null) {
+                return current;
+            }
+            long generation = generationOf(tag);
+            Object result = loader.load();
+            put(tag, key, result, generation);
+            return result;
+        });
+    }
+
+    public void put(String tag, String key, Object value) {
+        put(tag, key, value, generationOf(tag));
+    }
+
+    // Keeps the value only if tag was not evicted since generation was read.
+    private void put(String tag, String key, Object value, long generation) {
+        if (value == null || !isSuccess(value)) return;
+        Duration ttl = properties.getTtl().getOrDefault(tag, properties.getDefaultTtl());
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) return;
+        if (generationOf(tag) != generation) return;
+        CachedResponse entry = new CachedResponse(tag, value, ttl.toNanos(), estimateWeight(value));
+        cache.put(key, entry);
+        // An eviction between the check and the put bumped the generation first; undo the put.
+        if (generationOf(tag) != generation) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    // Evict every entry whose tag is the written tag, one of its sub resources or a configured dependency,
+    // here and on the other nodes.
+    public void invalidate(String tag) {
+        invalidateLocal(tag);
+        if (bus != null) {
+            bus.publishEvict(CACHE_NAME, tag);
+        }
+    }
+
+    public void invalidateAll() {
+        clearGeneration.incrementAndGet();
+        cache.invalidateAll();
+        if (bus != null) {
+            bus.publishClear(CACHE_NAME);
+        }
+    }
+
+    private void invalidateLocal(String tag) {
+        List<String> tags = new ArrayList<>();
+        tags.add(tag);
+        tags.addAll(properties.getDependencies().getOrDefault(tag, List.of()));
+        // Bumped before the removal so a concurrent put either sees it or is removed here.
+        for (String evicted : tags) {
+            generations.computeIfAbsent(evicted, k -> new AtomicLong()).incrementAndGet();
+        }
+        cache.asMap().values().removeIf(entry -> matchesAny(entry.tag, tags));
+    }
+
+    private void onRemoteInvalidate(String cacheName, String key) {
+        if (!CACHE_NAME.equals(cacheName)) return;
+        if (key == null) {
+            clearGeneration.incrementAndGet();
+            cache.invalidateAll();
+        } else {
+            invalidateLocal(key);
+        }
+    }
+
+    // Sum over the tag and its parent paths, since evicting /api/visits also evicts /api/visits/beds.
+    private long generationOf(String tag) {
+        long sum = clearGeneration.get();
+        String current = tag;
+        while (!current.isEmpty()) {
+            AtomicLong generation = generations.get(current);
+            if (generation != null) sum += generation.get();
+            int slash = current.lastIndexOf('/');
+            current = slash < 0 ? "" : current.substring(0, slash);
+        }
+        return sum;
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private boolean matchesAny(String entryTag, List<String> tags) {
+        for (String tag : tags) {
+            if (entryTag.equals(tag) || entryTag.startsWith(tag + "/")) return true;
+        }
+        return false;
+    }
+
+    private boolean isSuccess(Object value) {
+        // Streams (SSE, streamed downloads) are per connection and must never be shared.
+        if (value instanceof ResponseBodyEmitter || value instanceof StreamingResponseBody || value instanceof WebAsyncTask) return false;
+        if (value instanceof ResponseEntity) {
+            Object body = ((ResponseEntity<?>) value).getBody();
+            if (body instanceof ResponseBodyEmitter || body instanceof StreamingResponseBody) return false;
+            return ((ResponseEntity<?>) value).getStatusCode().is2xxSuccessful();
+        }
+        return true;
+    }
+
+    // Rough weight: one unit per response plus one per row of a list/map result.
+    private int estimateWeight(Object value) {
+        Object body = value instanceof ResponseEntity ? ((ResponseEntity<?>) value).getBody() : value;
+        if (body instanceof ApiResponse) {
+            body = ((ApiResponse<?>) body).getResult();
+        }
+        if (body instanceof Collection) {
+            return 1 + ((Collection<?>) body).size();
+        }
+        if (body instanceof Map) {
+            return 1 + ((Map<?, ?>) body).size();
+        }
+        return 1;
+    }
+
+    private static class CachedResponse {
+        private final String tag;
+        private final Object value;
+        private final long ttlNanos;
+        private final int weight;
+
+        private CachedResponse(String tag, Object value, long ttlNanos, int weight) {
+            this.tag = tag;
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package app.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived, node-local totals for slice (count-free) list pages that still want to show
+ * "about N results". Keyed by list name + filters; concurrent misses for a key share one count.
+ */
+@Component
+public class ApproximateCountCache {
+
+    private final Cache<String, Long> counts;
+
+    public ApproximateCountCache(@Value("${app.paging.approximate-count-ttl:60s}") Duration ttl,
+                                 @Value("${app.paging.approximate-count-max-keys:1000}") long maxKeys) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long get(String key, LongSupplier counter) {
+        return counts.get(key, k -> counter.getAsLong());
+    }
+}
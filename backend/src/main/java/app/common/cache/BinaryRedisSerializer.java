@@ -0,0 +1,135 @@
+package app.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact cache value format: Smile (binary JSON) bound to one declared value type per cache,
+ * so no class names are written, and repeated property names in lists are back-referenced.
+ * Payloads above compressThreshold bytes are deflated when that makes them smaller.
+ *
+ * Layout: 1 header byte (PLAIN or DEFLATED) + body. Anything else (e.g. JSON left in Redis
+ * by the previous serializer) reads as a cache miss instead of failing the request.
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = (byte) 0xB0;
+    private static final byte DEFLATED = (byte) 0xB1;
+
+    private static final ObjectMapper MAPPER = createMapper();
+
+    private final JavaType valueType;
+    private final int compressThreshold;
+
+    public BinaryRedisSerializer(String canonicalValueType, int compressThreshold) {
+        this.valueType = MAPPER.getTypeFactory().constructFromCanonical(canonicalValueType);
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) return new byte[0];
+        try {
+            byte[] body = MAPPER.writerFor(valueType).writeValueAsBytes(value);
+            if (compressThreshold > 0 && body.length > compressThreshold) {
+                byte[] deflated = deflate(body);
+                if (deflated != null) return deflated;
+            }
+            byte[] out = new byte[body.length + 1];
+            out[0] = PLAIN;
+            System.arraycopy(body, 0, out, 1, body.length);
+            return out;
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write cache value as " + valueType, ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2) return null;
+        try {
+            if (bytes[0] == PLAIN) {
+                return MAPPER.readValue(bytes, 1, bytes.length - 1, valueType);
+            }
+            if (bytes[0] == DEFLATED) {
+                byte[] body = inflate(bytes);
+                return MAPPER.readValue(body, valueType);
+            }
+            return null;
+        } catch (IOException | DataFormatException ex) {
+            throw new SerializationException("Could not read cache value as " + valueType, ex);
+        }
+    }
+
+    // Header + 4 byte original length + deflate stream, or null when compression does not pay off.
+    private byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] out = new byte[body.length];
+            out[0] = DEFLATED;
+            out[1] = (byte) (body.length >>> 24);
+            out[2] = (byte) (body.length >>> 16);
+            out[3] = (byte) (body.length >>> 8);
+            out[4] = (byte) body.length;
+            int length = 5;
+            while (!deflater.finished()) {
+                if (length == out.length) return null;
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return Arrays.copyOf(out, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] bytes) throws DataFormatException {
+        int length = ((bytes[1] & 0xFF) << 24) | ((bytes[2] & 0xFF) << 16) | ((bytes[3] & 0xFF) << 8) | (bytes[4] & 0xFF);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 5, bytes.length - 5);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(body, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated cache value");
+                }
+                read += n;
+            }
+            return body;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ObjectMapper createMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return mapper;
+    }
+}
@@ -0,0 +1,74 @@
+package app.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts cache evictions to the other app nodes over Redis pub/sub.
+ * Message format: nodeId|cacheName|key, with an empty key meaning "clear the whole cache".
+ * Messages sent by this node are ignored on receipt.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public interface Listener {
+        // key is null when the whole cache was cleared.
+        void onInvalidate(String cacheName, String key);
+    }
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(nodeId + SEPARATOR + cacheName + SEPARATOR);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (DataAccessException ex) {
+            // Other nodes fall back to the L1 TTL.
+            log.warn("[CACHE] invalidation publish failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+        if (second < 0) return;
+        if (body.regionMatches(0, nodeId, 0, first) && first == nodeId.length()) return;
+
+        String cacheName = body.substring(first + 1, second);
+        String key = second + 1 == body.length() ? null : body.substring(second + 1);
+        for (Listener listener : listeners) {
+            listener.onInvalidate(cacheName, key);
+        }
+    }
+}
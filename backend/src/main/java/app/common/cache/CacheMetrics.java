@@ -0,0 +1,102 @@
+package app.common.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheMetrics {
+
+    private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder localEvictions = new LongAdder();
+
+    public CacheMetrics(String name) {
+        this.name = name;
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void localHit() {
+        localHits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void loaded(long elapsedNanos, boolean success) {
+        loads.increment();
+        loadNanos.add(elapsedNanos);
+        if (!success) {
+            loadFailures.increment();
+        }
+    }
+
+    public void refreshed() {
+        refreshes.increment();
+    }
+
+    public void put() {
+        puts.increment();
+    }
+
+    public void evicted() {
+        evictions.increment();
+    }
+
+    public void localEvicted() {
+        localEvictions.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    public long getLoadNanos() {
+        return loadNanos.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getLocalEvictions() {
+        return localEvictions.sum();
+    }
+}
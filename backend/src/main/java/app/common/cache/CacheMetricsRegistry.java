@@ -0,0 +1,80 @@
+package app.common.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hit/miss/load counters per @Cacheable cache name.
+ * hits includes localHits (served by the in-process L1 without a Redis round trip).
+ */
+@Component
+public class CacheMetricsRegistry {
+
+    private final ConcurrentHashMap<String, CacheMetrics> caches = new ConcurrentHashMap<>();
+
+    public CacheMetrics cache(String name) {
+        CacheMetrics metrics = caches.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+        return caches.computeIfAbsent(name, CacheMetrics::new);
+    }
+
+    public List<CacheMetrics> caches() {
+        List<CacheMetrics> list = new ArrayList<>(caches.values());
+        list.sort(Comparator.comparing(CacheMetrics::getName));
+        return list;
+    }
+
+    // Prometheus text exposition format (version 0.0.4).
+    public String toPrometheusText() {
+        List<CacheMetrics> list = caches();
+        StringBuilder sb = new StringBuilder(256 + list.size() * 384);
+
+        sb.append("# HELP cache_requests_total Cache lookups by result.\n");
+        sb.append("# TYPE cache_requests_total counter\n");
+        for (CacheMetrics metrics : list) {
+            String label = label(metrics);
+            sb.append("cache_requests_total{").append(label).append(",result=\"local_hit\"} ").append(metrics.getLocalHits()).append('\n');
+            sb.append("cache_requests_total{").append(label).append(",result=\"remote_hit\"} ").append(metrics.getHits() - metrics.getLocalHits()).append('\n');
+            sb.append("cache_requests_total{").append(label).append(",result=\"miss\"} ").append(metrics.getMisses()).append('\n');
+        }
+
+        sb.append("# HELP cache_load_duration_seconds Time spent loading values on a miss.\n");
+        sb.append("# TYPE cache_load_duration_seconds summary\n");
+        for (CacheMetrics metrics : list) {
+            sb.append("cache_load_duration_seconds_sum{").append(label(metrics)).append("} ")
+                    .append(metrics.getLoadNanos() / 1_000_000_000.0).append('\n');
+            sb.append("cache_load_duration_seconds_count{").append(label(metrics)).append("} ")
+                    .append(metrics.getLoads()).append('\n');
+        }
+
+        sb.append("# HELP cache_load_failures_total Loads that threw.\n");
+        sb.append("# TYPE cache_load_failures_total counter\n");
+        for (CacheMetrics metrics : list) {
+            sb.append("cache_load_failures_total{").append(label(metrics)).append("} ").append(metrics.getLoadFailures()).append('\n');
+        }
+
+        sb.append("# HELP cache_refreshes_total Background refresh-ahead reloads.\n");
+        sb.append("# TYPE cache_refreshes_total counter\n");
+        for (CacheMetrics metrics : list) {
+            sb.append("cache_refreshes_total{").append(label(metrics)).append("} ").append(metrics.getRefreshes()).append('\n');
+        }
+
+        sb.append("# HELP cache_evictions_total Explicit evictions (evict / clear) and L1 size or expiry evictions.\n");
+        sb.append("# TYPE cache_evictions_total counter\n");
+        for (CacheMetrics metrics : list) {
+            sb.append("cache_evictions_total{").append(label(metrics)).append(",cause=\"explicit\"} ").append(metrics.getEvictions()).append('\n');
+            sb.append("cache_evictions_total{").append(label(metrics)).append(",cause=\"local\"} ").append(metrics.getLocalEvictions()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String label(CacheMetrics metrics) {
+        return "cache=\"" + metrics.getName().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,182 @@
+package app.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Cache decorator used for @Cacheable(sync = true).
+ * Concurrent misses for the same key share one loader call; different keys load in parallel
+ * (RedisCache.get(key, loader) would serialize every key of the cache on one monitor).
+ *
+ * Also records hit/miss/load metrics and, when refreshAhead is set, reloads values this node loaded
+ * more than refreshAhead ago in the background on the next read, so hot keys never expire under load.
+ * Refresh-ahead needs the loader and therefore only applies to sync = true caches.
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheMetrics metrics;
+    private final Duration refreshAhead;
+    private final Executor refreshExecutor;
+    private final SingleFlight<Object, Object> singleFlight = new SingleFlight<>();
+    // When this node last loaded each key; only kept while refresh-ahead is enabled.
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> loadedAt;
+
+    public CoalescingCache(Cache delegate, CacheMetrics metrics,
+                           Duration refreshAhead, Duration ttl, Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = refreshExecutor;
+        this.loadedAt = refreshAhead == null ? null : Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return record(delegate.get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            if (isDueForRefresh(key)) {
+                refreshAsync(key, valueLoader);
+            }
+            return (T) cached.get();
+        }
+        try {
+            return (T) singleFlight.execute(key, () -> {
+                ValueWrapper loaded = delegate.get(key);
+                if (loaded != null) {
+                    return loaded.get();
+                }
+                return load(key, valueLoader);
+            });
+        } catch (Throwable ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        metrics.put();
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        metrics.put();
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        metrics.evicted();
+        forget(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        metrics.evicted();
+        forget(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        metrics.evicted();
+        if (loadedAt != null) loadedAt.invalidateAll();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        metrics.evicted();
+        if (loadedAt != null) loadedAt.invalidateAll();
+        return delegate.invalidate();
+    }
+
+    private ValueWrapper record(ValueWrapper wrapper) {
+        if (wrapper == null) {
+            metrics.miss();
+        } else {
+            metrics.hit();
+        }
+        return wrapper;
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object value = valueLoader.call();
+            success = true;
+            put(key, value);
+            if (loadedAt != null) loadedAt.put(key, System.nanoTime());
+            return value;
+        } finally {
+            metrics.loaded(System.nanoTime() - start, success);
+        }
+    }
+
+    private boolean isDueForRefresh(Object key) {
+        if (loadedAt == null) return false;
+        Long at = loadedAt.getIfPresent(key);
+        return at != null && System.nanoTime() - at >= refreshAhead.toNanos();
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        // Pushing the timestamp forward makes concurrent readers skip scheduling the same refresh.
+        loadedAt.put(key, System.nanoTime());
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    singleFlight.execute(key, () -> load(key, valueLoader));
+                    metrics.refreshed();
+                } catch (Throwable ex) {
+                    log.warn("[CACHE] refresh-ahead failed: cache={} key={} error={}", getName(), key, ex.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            loadedAt.invalidate(key);
+        }
+    }
+
+    private void forget(Object key) {
+        if (loadedAt != null) loadedAt.invalidate(key);
+    }
+}
@@ -0,0 +1,56 @@
+package app.common.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheMetricsRegistry metricsRegistry;
+    private final LayeredCacheProperties properties;
+    private final Executor refreshExecutor = createRefreshExecutor();
+    private final ConcurrentHashMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager delegate, CacheMetricsRegistry metricsRegistry, LayeredCacheProperties properties) {
+        this.delegate = delegate;
+        this.metricsRegistry = metricsRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new CoalescingCache(target, metricsRegistry.cache(n),
+                properties.spec(n).getRefreshAhead(), properties.ttlOf(n), refreshExecutor));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    // Small and bounded: a refresh that cannot be queued is skipped and the entry simply expires.
+    private static Executor createRefreshExecutor() {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(256), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
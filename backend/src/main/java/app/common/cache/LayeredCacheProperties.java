@@ -0,0 +1,71 @@
+package app.common.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class LayeredCacheProperties {
+
+    // Redis TTL for caches without their own spec.
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    // In-process L1 in front of the Redis caches.
+    private boolean localEnabled = true;
+
+    // Max entries per cache name on each node.
+    private long localMaxSize = 10_000L;
+
+    // Upper bound on how long a node can serve a stale entry if an invalidation message is lost.
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    // Redis pub/sub channel used to tell other nodes to drop their L1 entries.
+    private String invalidationChannel = "cache:invalidate";
+
+    // Per cache name overrides, e.g. app.cache.specs.[STAFF_LIST].ttl=5m
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    public Spec spec(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null ? spec : new Spec();
+    }
+
+    public Duration ttlOf(String cacheName) {
+        Duration ttl = spec(cacheName).getTtl();
+        return ttl != null ? ttl : defaultTtl;
+    }
+
+    // L1 never outlives the Redis entry.
+    public Duration localTtlOf(String cacheName) {
+        Duration ttl = ttlOf(cacheName);
+        return ttl.compareTo(localTtl) < 0 ? ttl : localTtl;
+    }
+
+    public long localMaxSizeOf(String cacheName) {
+        Long maxSize = spec(cacheName).getLocalMaxSize();
+        return maxSize != null ? maxSize : localMaxSize;
+    }
+
+    @Getter @Setter
+    public static class Spec {
+        // Redis entry TTL; defaults to default-ttl.
+        private Duration ttl;
+        // Max L1 entries on each node; defaults to local-max-size.
+        private Long localMaxSize;
+        // Store null results (as a marker) so repeated lookups of missing rows skip the database.
+        private boolean cacheNulls = false;
+        // Reload in the background when a sync = true entry is read and is older than this; must be below ttl.
+        private Duration refreshAhead;
+        // json (default, class names embedded) or binary (see BinaryRedisSerializer).
+        private String serializer = "json";
+        // Jackson canonical type of the cached value, required for binary, e.g. java.util.List<app.staff.dto.StaffListItem>
+        private String valueType;
+        // Binary values larger than this many bytes are deflated; 0 disables compression.
+        private int compressThreshold = 1024;
+    }
+}
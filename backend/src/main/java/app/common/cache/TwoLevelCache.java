@@ -0,0 +1,181 @@
+package app.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local Caffeine L1 in front of a Redis L2 cache.
+ * Reads hit L1 first; writes and evictions go to Redis and are broadcast so other nodes drop their L1 copy.
+ * L1 returns the same instance to every caller, so cached values must not be mutated.
+ * Cached nulls (caches with cache-nulls) are kept in L1 as NullValue.
+ *
+ * A read that misses L1 copies the Redis value into L1 only if no write or eviction of that key (here or
+ * from another node) happened while Redis was being read; otherwise the old value could outlive the
+ * eviction for the whole local TTL. Keys share GENERATION_STRIPES counters, so a write to one key can at
+ * worst make a concurrent read of another key skip its L1 fill.
+ */
+public class TwoLevelCache implements org.springframework.cache.Cache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final org.springframework.cache.Cache remote;
+    private final Cache<String, Object> local;
+    private final CacheInvalidationBus bus;
+    private final CacheMetrics metrics;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    public TwoLevelCache(org.springframework.cache.Cache remote, Cache<String, Object> local, CacheInvalidationBus bus,
+                         CacheMetrics metrics) {
+        this.remote = remote;
+        this.local = local;
+        this.bus = bus;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            metrics.localHit();
+            return new SimpleValueWrapper(value == NullValue.INSTANCE ? null : value);
+        }
+        long generation = generationOf(localKey);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && generationOf(localKey) == generation) {
+            Object localValue = wrapper.get() != null ? wrapper.get() : NullValue.INSTANCE;
+            local.put(localKey, localValue);
+            // A write that bumped the generation between the check and the put may have run before it; undo.
+            if (generationOf(localKey) != generation) {
+                local.asMap().remove(localKey, localValue);
+            }
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = String.valueOf(key);
+        bump(localKey);
+        local.put(localKey, value != null ? value : NullValue.INSTANCE);
+        bus.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            String localKey = String.valueOf(key);
+            bump(localKey);
+            local.put(localKey, value != null ? value : NullValue.INSTANCE);
+            bus.publishEvict(getName(), localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = String.valueOf(key);
+        bump(localKey);
+        local.invalidate(localKey);
+        bus.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        String localKey = String.valueOf(key);
+        bump(localKey);
+        local.invalidate(localKey);
+        bus.publishEvict(getName(), localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearGeneration.incrementAndGet();
+        local.invalidateAll();
+        bus.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearGeneration.incrementAndGet();
+        local.invalidateAll();
+        bus.publishClear(getName());
+        return invalidated;
+    }
+
+    // Called for invalidations from other nodes; Redis itself was already updated by the sender.
+    void invalidateLocal(String key) {
+        if (key == null) {
+            clearGeneration.incrementAndGet();
+            local.invalidateAll();
+        } else {
+            bump(key);
+            local.invalidate(key);
+        }
+    }
+
+    // Bumped after Redis changed and before L1 does, so a read either sees the bump or reads the new value.
+    private void bump(String localKey) {
+        generations.incrementAndGet(stripeOf(localKey));
+    }
+
+    private long generationOf(String localKey) {
+        return clearGeneration.get() + generations.get(stripeOf(localKey));
+    }
+
+    private static int stripeOf(String localKey) {
+        return (localKey.hashCode() & 0x7fffffff) % GENERATION_STRIPES;
+    }
+}
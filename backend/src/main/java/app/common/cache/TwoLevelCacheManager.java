@@ -0,0 +1,64 @@
+package app.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final CacheInvalidationBus bus;
+    private final CacheMetricsRegistry metricsRegistry;
+    private final LayeredCacheProperties properties;
+    private final ConcurrentHashMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, CacheInvalidationBus bus, CacheMetricsRegistry metricsRegistry,
+                                LayeredCacheProperties properties) {
+        this.remote = remote;
+        this.bus = bus;
+        this.metricsRegistry = metricsRegistry;
+        this.properties = properties;
+        bus.subscribe(this::onRemoteInvalidate);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = remote.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        CacheMetrics metrics = metricsRegistry.cache(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(properties.localMaxSizeOf(name))
+                .expireAfterWrite(properties.localTtlOf(name))
+                .removalListener((String key, Object value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) metrics.localEvicted();
+                })
+                .build();
+        return new TwoLevelCache(remote.getCache(name), local, bus, metrics);
+    }
+
+    private void onRemoteInvalidate(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package app.common.config;
 
+import app.common.audit.AuditProperties;
+import app.common.cache.ApiCacheProperties;
+import app.common.cache.LayeredCacheProperties;
+import app.common.ratelimit.RateLimitProperties;
 import app.common.storage.MinioProperties;
+import app.reception.service.WardLayoutProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(MinioProperties.class)
+@EnableConfigurationProperties({MinioProperties.class, ApiCacheProperties.class, RateLimitProperties.class, AuditProperties.class,
+        LayeredCacheProperties.class, WardLayoutProperties.class})
 public class AppConfig {
 }
 
@@ -0,0 +1,21 @@
+package app.common.exception;
+
+import app.common.ApiResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+// Runs before the catch-all Exception handlers so 429 / 4xx statuses from aspects are kept.
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ResponseStatusExceptionHandler {
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiResponse<Void>> handleResponseStatus(ResponseStatusException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .body(new ApiResponse<>(false, ex.getReason(), null));
+    }
+}
@@ -0,0 +1,157 @@
+package app.common.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TransactionRequiredException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects history rows for the current transaction and writes them right before commit,
+ * one JDBC batch insert per table instead of one save (and one NEXTVAL) per changed field.
+ *
+ * Ids come from the table's sequence in blocks: the sequences are INCREMENT BY idBlockSize, one NEXTVAL
+ * reserves a block and ids inside it are handed out in memory. Blocks are unique across nodes, so ids are
+ * unique but only ordered within a node.
+ *
+ * Without an active transaction the row is written immediately.
+ */
+@Slf4j
+@Component
+public class HistoryJournal {
+
+    private final JdbcTemplate jdbc;
+    private final ConcurrentHashMap<String, IdSource> idSources = new ConcurrentHashMap<>();
+
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder sequenceCalls = new LongAdder();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Must match INCREMENT BY of the history sequences.
+    @Value("${app.history.id-block-size:50}")
+    private int idBlockSize;
+
+    public HistoryJournal(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void append(HistoryTable table, HistoryRecord record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(table, List.of(record));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.records.computeIfAbsent(table, t -> new ArrayList<>()).add(record);
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getSequenceCalls() {
+        return sequenceCalls.sum();
+    }
+
+    private void write(HistoryTable table, List<HistoryRecord> records) {
+        if (records.isEmpty()) return;
+        jdbc.batchUpdate(table.getInsertSql(), records, records.size(), (ps, record) -> {
+            ps.setLong(1, nextId(table));
+            ps.setLong(2, record.getOwnerId());
+            ps.setString(3, record.getEventType());
+            ps.setString(4, record.getFieldName());
+            ps.setString(5, record.getOldValue());
+            ps.setString(6, record.getNewValue());
+            ps.setString(7, record.getReason());
+            ps.setString(8, record.getChangedBy());
+            ps.setTimestamp(9, Timestamp.valueOf(record.getChangedAt()));
+        });
+        rows.add(records.size());
+        batches.increment();
+    }
+
+    private long nextId(HistoryTable table) {
+        IdSource source = idSources.computeIfAbsent(table.getSequenceName(), name -> new IdSource());
+        while (true) {
+            IdBlock current = source.block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            synchronized (source) {
+                if (source.block == current) {
+                    long start = jdbc.queryForObject("SELECT " + table.getSequenceName() + ".NEXTVAL FROM DUAL", Long.class);
+                    sequenceCalls.increment();
+                    source.block = new IdBlock(start, start + idBlockSize);
+                }
+            }
+        }
+    }
+
+    // Rows must go in after the owner rows created in the same transaction.
+    private void flushEntityManager() {
+        try {
+            entityManager.flush();
+        } catch (TransactionRequiredException ex) {
+            log.debug("[HISTORY] no JPA transaction to flush: {}", ex.getMessage());
+        }
+    }
+
+    private static final class IdSource {
+        private volatile IdBlock block = new IdBlock(0, 0);
+    }
+
+    private static final class IdBlock {
+        private final AtomicLong next;
+        private final long end;
+
+        private IdBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final Map<HistoryTable, List<HistoryRecord>> records = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (records.isEmpty()) return;
+            flushEntityManager();
+            for (Map.Entry<HistoryTable, List<HistoryRecord>> entry : records.entrySet()) {
+                write(entry.getKey(), entry.getValue());
+            }
+            records.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(HistoryJournal.this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package app.common.history;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class HistoryRecord {
+
+    private final Long ownerId;
+    private final String eventType;
+    private final String fieldName;
+    private final String oldValue;
+    private final String newValue;
+    private final String reason;
+    private final String changedBy;
+    private final LocalDateTime changedAt;
+
+    public HistoryRecord(Long ownerId, String eventType, String fieldName, String oldValue, String newValue,
+                         String reason, String changedBy) {
+        this.ownerId = ownerId;
+        this.eventType = eventType;
+        this.fieldName = fieldName;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.reason = reason;
+        this.changedBy = changedBy;
+        this.changedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,37 @@
+package app.common.history;
+
+/**
+ * Change-history table written by {@link HistoryJournal}.
+ * All history tables share the layout ID, owner id, EVENT_TYPE, FIELD_NAME, OLD_VALUE, NEW_VALUE,
+ * REASON, CHANGED_BY, CHANGED_AT; only the table, owner column and id sequence differ.
+ */
+public final class HistoryTable {
+
+    private final String tableName;
+    private final String sequenceName;
+    private final String insertSql;
+
+    private HistoryTable(String tableName, String ownerColumn, String sequenceName) {
+        this.tableName = tableName;
+        this.sequenceName = sequenceName;
+        this.insertSql = "INSERT INTO " + tableName + " (ID, " + ownerColumn
+                + ", EVENT_TYPE, FIELD_NAME, OLD_VALUE, NEW_VALUE, REASON, CHANGED_BY, CHANGED_AT) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    public static HistoryTable of(String tableName, String ownerColumn, String sequenceName) {
+        return new HistoryTable(tableName, ownerColumn, sequenceName);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getSequenceName() {
+        return sequenceName;
+    }
+
+    String getInsertSql() {
+        return insertSql;
+    }
+}
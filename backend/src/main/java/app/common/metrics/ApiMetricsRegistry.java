@@ -0,0 +1,91 @@
+package app.common.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route request metrics keyed by HTTP method + URI template (never the raw URI,
+ * so ids in the path do not create new series).
+ */
+@Component
+public class ApiMetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    public RouteMetrics route(String method, String route) {
+        String key = method + " " + route;
+        RouteMetrics metrics = routes.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        return routes.computeIfAbsent(key, k -> new RouteMetrics(method, route));
+    }
+
+    public List<RouteMetrics> routes() {
+        List<RouteMetrics> list = new ArrayList<>(routes.values());
+        list.sort(Comparator.comparing(RouteMetrics::getRoute).thenComparing(RouteMetrics::getMethod));
+        return list;
+    }
+
+    // Prometheus text exposition format (version 0.0.4).
+    public String toPrometheusText() {
+        List<RouteMetrics> list = routes();
+        StringBuilder sb = new StringBuilder(256 + list.size() * 512);
+
+        sb.append("# HELP api_request_duration_seconds API request latency by route.\n");
+        sb.append("# TYPE api_request_duration_seconds summary\n");
+        for (RouteMetrics metrics : list) {
+            String labels = labels(metrics);
+            long[] snapshot = metrics.histogramSnapshot();
+            for (double quantile : QUANTILES) {
+                sb.append("api_request_duration_seconds{").append(labels)
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(LatencyHistogram.quantile(snapshot, quantile))).append('\n');
+            }
+            sb.append("api_request_duration_seconds_sum{").append(labels).append("} ")
+                    .append(seconds(metrics.getTotalMicros())).append('\n');
+            sb.append("api_request_duration_seconds_count{").append(labels).append("} ")
+                    .append(metrics.getCount()).append('\n');
+        }
+
+        sb.append("# HELP api_request_duration_max_seconds Max API request latency by route.\n");
+        sb.append("# TYPE api_request_duration_max_seconds gauge\n");
+        for (RouteMetrics metrics : list) {
+            sb.append("api_request_duration_max_seconds{").append(labels(metrics)).append("} ")
+                    .append(seconds(metrics.getMaxMicros())).append('\n');
+        }
+
+        sb.append("# HELP api_request_errors_total Failed API requests by route.\n");
+        sb.append("# TYPE api_request_errors_total counter\n");
+        for (RouteMetrics metrics : list) {
+            sb.append("api_request_errors_total{").append(labels(metrics)).append("} ")
+                    .append(metrics.getErrors()).append('\n');
+        }
+
+        sb.append("# HELP api_requests_in_flight API requests currently being processed.\n");
+        sb.append("# TYPE api_requests_in_flight gauge\n");
+        for (RouteMetrics metrics : list) {
+            sb.append("api_requests_in_flight{").append(labels(metrics)).append("} ")
+                    .append(metrics.getInFlight()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String labels(RouteMetrics metrics) {
+        return "method=\"" + escape(metrics.getMethod()) + "\",route=\"" + escape(metrics.getRoute()) + "\"";
+    }
+
+    private String seconds(long micros) {
+        return String.valueOf(micros / 1_000_000.0);
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
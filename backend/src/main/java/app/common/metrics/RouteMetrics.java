@@ -0,0 +1,70 @@
+package app.common.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RouteMetrics {
+
+    private final String method;
+    private final String route;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Long::max, 0L);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    public void end(long elapsedNanos, boolean error) {
+        long micros = elapsedNanos / 1_000L;
+        inFlight.decrementAndGet();
+        histogram.record(micros);
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long[] histogramSnapshot() {
+        return histogram.snapshot();
+    }
+}
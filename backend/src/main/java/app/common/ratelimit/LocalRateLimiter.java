@@ -0,0 +1,53 @@
+package app.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process token buckets. State lives in a bounded, idle-expiring Caffeine map
+ * (internally striped), and each bucket is only locked by callers of the same key.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public LocalRateLimiter(RateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleExpiry())
+                .maximumSize(properties.getMaxKeys())
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, RateLimitProperties.Bucket bucket) {
+        TokenBucket state = buckets.get(key, k -> new TokenBucket(bucket.getCapacity()));
+        return state.tryAcquire(bucket.getCapacity(), bucket.getRefillPerSecond(), System.nanoTime());
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(long capacity) {
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        private synchronized boolean tryAcquire(long capacity, double refillPerSecond, long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            if (elapsedSeconds > 0) {
+                tokens = Math.min(capacity, tokens + elapsedSeconds * refillPerSecond);
+                lastRefillNanos = now;
+            }
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return true;
+            }
+            return false;
+        }
+    }
+}
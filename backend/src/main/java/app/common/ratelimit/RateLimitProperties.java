@@ -0,0 +1,44 @@
+package app.common.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // local (per node) or redis (shared across nodes).
+    private String store = "local";
+
+    // Buckets idle longer than this are dropped; they would be full again anyway.
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    // Hard cap on tracked buckets per node.
+    private long maxKeys = 100_000L;
+
+    // First matching rule wins.
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Rule {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        // Empty means every method.
+        private List<String> methods = new ArrayList<>();
+        private Bucket perUser;
+        private Bucket perIp;
+    }
+
+    @Getter @Setter
+    public static class Bucket {
+        private long capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,7 @@
+package app.common.ratelimit;
+
+public interface RateLimiter {
+
+    // Takes one token from the bucket identified by key; false when the bucket is empty.
+    boolean tryAcquire(String key, RateLimitProperties.Bucket bucket);
+}
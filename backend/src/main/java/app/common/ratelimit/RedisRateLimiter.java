@@ -0,0 +1,70 @@
+package app.common.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token buckets shared by every app node. The refill + take runs atomically in a Lua
+ * script using the Redis clock; keys expire once the bucket would be full again.
+ * Falls back to per-node buckets while Redis is unavailable.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "redis")
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private static final DefaultRedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "redis.replicate_commands()\n"
+                    + "local capacity = tonumber(ARGV[1])\n"
+                    + "local refill = tonumber(ARGV[2])\n"
+                    + "local t = redis.call('TIME')\n"
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n"
+                    + "local state = redis.call('HMGET', KEYS[1], 't', 'ts')\n"
+                    + "local tokens = tonumber(state[1]) or capacity\n"
+                    + "local ts = tonumber(state[2]) or now\n"
+                    + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill / 1000)\n"
+                    + "local allowed = 0\n"
+                    + "if tokens >= 1 then\n"
+                    + "  tokens = tokens - 1\n"
+                    + "  allowed = 1\n"
+                    + "end\n"
+                    + "redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', tostring(now))\n"
+                    + "local ttl = 1000\n"
+                    + "if refill > 0 then ttl = math.ceil(capacity / refill * 1000) + 1000 end\n"
+                    + "redis.call('PEXPIRE', KEYS[1], ttl)\n"
+                    + "return allowed\n",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalRateLimiter fallback;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, RateLimitProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = new LocalRateLimiter(properties);
+    }
+
+    @Override
+    public boolean tryAcquire(String key, RateLimitProperties.Bucket bucket) {
+        try {
+            Long allowed = redisTemplate.execute(
+                    TOKEN_BUCKET_SCRIPT,
+                    List.of(KEY_PREFIX + key),
+                    String.valueOf(bucket.getCapacity()),
+                    String.valueOf(bucket.getRefillPerSecond())
+            );
+            return allowed != null && allowed == 1L;
+        } catch (DataAccessException ex) {
+            log.warn("Redis rate limiter unavailable, using local buckets: {}", ex.getMessage());
+            return fallback.tryAcquire(key, bucket);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @Getter @Setter
 @ConfigurationProperties(prefix = "minio")
 public class MinioProperties {
@@ -14,5 +16,9 @@ public class MinioProperties {
     private String secretKey;
     private String bucketStaff;
     private String bucketPatient;
+    // MinIO caps presigned URLs at 7 days; cached URLs are reused until presignCacheMargin before expiry.
+    private Duration presignExpiry = Duration.ofDays(7);
+    private Duration presignCacheMargin = Duration.ofMinutes(10);
+    private long presignCacheMaxSize = 10_000;
 }
 
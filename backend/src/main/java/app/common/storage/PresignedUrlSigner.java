@@ -0,0 +1,87 @@
+package app.common.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Presigns GET URLs with one long-lived client (the public endpoint when minio.public-url is set) and caches
+ * them per bucket/object until presignCacheMargin before they expire. Signing is local with a fixed region,
+ * so a list endpoint pays for each object once per expiry window instead of once per row and request.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "minio")
+public class PresignedUrlSigner {
+
+    private static final String MINIO_REGION = "us-east-1";
+
+    private final MinioClient signer;
+    private final int expirySeconds;
+    private final Cache<String, String> urls;
+
+    public PresignedUrlSigner(MinioClient minioClient, MinioProperties props) {
+        this.signer = StringUtils.hasText(props.getPublicUrl())
+                ? MinioClient.builder()
+                        .endpoint(props.getPublicUrl())
+                        .credentials(props.getAccessKey(), props.getSecretKey())
+                        .build()
+                : minioClient;
+        Duration expiry = props.getPresignExpiry();
+        Duration ttl = expiry.minus(props.getPresignCacheMargin());
+        if (ttl.isNegative() || ttl.isZero()) {
+            ttl = expiry.dividedBy(2);
+        }
+        this.expirySeconds = (int) expiry.getSeconds();
+        this.urls = Caffeine.newBuilder()
+                .maximumSize(props.getPresignCacheMaxSize())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public String sign(String bucket, String objectKey) {
+        if (!StringUtils.hasText(objectKey)) {
+            return null;
+        }
+        return urls.get(bucket + "/" + objectKey, key -> presign(bucket, objectKey));
+    }
+
+    // Object key -> URL for every non-blank key; duplicates are signed once.
+    public Map<String, String> signAll(String bucket, Collection<String> objectKeys) {
+        Map<String, String> result = new HashMap<>();
+        if (objectKeys == null) {
+            return result;
+        }
+        for (String objectKey : objectKeys) {
+            if (StringUtils.hasText(objectKey) && !result.containsKey(objectKey)) {
+                result.put(objectKey, sign(bucket, objectKey));
+            }
+        }
+        return result;
+    }
+
+    private String presign(String bucket, String objectKey) {
+        try {
+            return signer.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.GET)
+                            .region(MINIO_REGION)
+                            .bucket(bucket)
+                            .object(objectKey)
+                            .expiry(expirySeconds)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new IllegalStateException("MinIO presigned URL 생성 실패", e);
+        }
+    }
+}
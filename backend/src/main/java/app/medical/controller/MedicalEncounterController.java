@@ -30,17 +30,47 @@ public class MedicalEncounterController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false, defaultValue = "false") Boolean includeInactive,
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "20") int size
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false, defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal
     ) {
-        PageRes<MedicalEncounterListItemRes> result = medicalEncounterService.findEncounters(
-                keyword, status, doctorId, fromDate, toDate, includeInactive, page, size
-        );
+        // slice=true skips the count query: page is ignored and nextCursor is passed back as cursor.
+        PageRes<MedicalEncounterListItemRes> result = slice
+                ? medicalEncounterService.findEncounterSlice(
+                        keyword, status, doctorId, fromDate, toDate, includeInactive, cursor, size, withTotal)
+                : medicalEncounterService.findEncounters(
+                        keyword, status, doctorId, fromDate, toDate, includeInactive, page, size);
         return ResponseEntity.ok(new ApiResponse<PageRes<MedicalEncounterListItemRes>>().ok(result));
     }
 
     @GetMapping("/{encounterId}")
-    public ResponseEntity<ApiResponse<MedicalEncounterDetailRes>> findEncounter(@PathVariable Long encounterId) {
-        return ResponseEntity.ok(new ApiResponse<MedicalEncounterDetailRes>().ok(medicalEncounterService.findEncounter(encounterId)));
+    public ResponseEntity<ApiResponse<MedicalEncounterDetailRes>> findEncounter(
+            @PathVariable Long encounterId,
+            @RequestParam(required = false) List<String> embed,
+            @RequestParam(required = false, defaultValue = "20") int historySize
+    ) {
+        // embed=assets,history returns what /assets and /history would, in the same response.
+        if (embed == null || embed.isEmpty()) {
+            return ResponseEntity.ok(new ApiResponse<MedicalEncounterDetailRes>().ok(medicalEncounterService.findEncounter(encounterId)));
+        }
+        boolean assets = false;
+        boolean history = false;
+        for (String value : embed) {
+            String part = value.trim().toLowerCase();
+            if (part.equals("assets")) {
+                assets = true;
+            } else if (part.equals("history")) {
+                history = true;
+            } else if (!part.isEmpty()) {
+                throw new IllegalArgumentException("unknown embed: " + value);
+            }
+        }
+        if (!assets && !history) {
+            return ResponseEntity.ok(new ApiResponse<MedicalEncounterDetailRes>().ok(medicalEncounterService.findEncounter(encounterId)));
+        }
+        return ResponseEntity.ok(new ApiResponse<MedicalEncounterDetailRes>().ok(
+                medicalEncounterService.findEncounter(encounterId, assets, history, historySize)));
     }
 
     @GetMapping("/{encounterId}/history")
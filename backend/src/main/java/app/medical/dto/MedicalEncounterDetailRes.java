@@ -29,4 +29,7 @@ public class MedicalEncounterDetailRes {
     private String updatedBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Only filled when asked for with embed=assets / embed=history on GET /{encounterId}.
+    private List<MedicalEncounterAssetRes> assets;
+    private List<MedicalEncounterHistoryRes> history;
 }
@@ -5,12 +5,25 @@ import lombok.Getter;
 
 import java.util.List;
 
+// Offset page, or in slice mode a keyset page: totals are null, pass nextCursor back as cursor for the next one.
 @Getter
 @AllArgsConstructor
 public class PageRes<T> {
     private List<T> items;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean hasNext;
+    private String nextCursor;
+    // Cached count, only filled in slice mode when asked for; may lag behind recent writes.
+    private Long approximateTotal;
+
+    public PageRes(List<T> items, int page, int size, long totalElements, int totalPages) {
+        this(items, page, size, totalElements, totalPages, page + 1 < totalPages, null, null);
+    }
+
+    public static <T> PageRes<T> slice(List<T> items, int size, boolean hasNext, String nextCursor, Long approximateTotal) {
+        return new PageRes<>(items, 0, size, null, null, hasNext, nextCursor, approximateTotal);
+    }
 }
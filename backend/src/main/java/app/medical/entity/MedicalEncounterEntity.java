@@ -77,4 +77,8 @@ public class MedicalEncounterEntity {
 
     @Column(name = "UPDATED_AT")
     private LocalDateTime updatedAt;
+
+    // Normalized keyword text (EncounterSearchIndex.searchTextOf) for the LIKE fallback of keyword search.
+    @Column(name = "SEARCH_TEXT", length = 1000)
+    private String searchText;
 }
@@ -0,0 +1,18 @@
+package app.medical.repository;
+
+import app.medical.entity.MedicalEncounterAssetEntity;
+import app.medical.entity.MedicalEncounterDiagnosisEntity;
+import app.medical.entity.MedicalEncounterHistoryEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Child rows of one encounter read in a single query; the entities are detached copies, not managed.
+@Getter
+@AllArgsConstructor
+public class MedicalEncounterChildren {
+    private List<MedicalEncounterDiagnosisEntity> diagnoses;
+    private List<MedicalEncounterAssetEntity> assets;
+    private List<MedicalEncounterHistoryEntity> history;
+}
@@ -0,0 +1,17 @@
+package app.medical.repository;
+
+import app.medical.entity.MedicalEncounterEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MedicalEncounterQueryRepository {
+
+    // Newest first by (createdAt, id); rows strictly after the cursor when one is given. No count query.
+    List<MedicalEncounterEntity> findEncounterSlice(Specification<MedicalEncounterEntity> spec,
+                                                    LocalDateTime cursorCreatedAt, Long cursorId, int limit);
+
+    // Diagnoses, plus assets and the latest historyLimit history rows when asked for, in one round trip.
+    MedicalEncounterChildren findEncounterChildren(Long encounterId, boolean withAssets, int historyLimit);
+}
@@ -0,0 +1,177 @@
+package app.medical.repository;
+
+import app.medical.entity.MedicalEncounterAssetEntity;
+import app.medical.entity.MedicalEncounterDiagnosisEntity;
+import app.medical.entity.MedicalEncounterEntity;
+import app.medical.entity.MedicalEncounterHistoryEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class MedicalEncounterQueryRepositoryImpl implements MedicalEncounterQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MedicalEncounterEntity> findEncounterSlice(Specification<MedicalEncounterEntity> spec,
+                                                           LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MedicalEncounterEntity> query = cb.createQuery(MedicalEncounterEntity.class);
+        Root<MedicalEncounterEntity> root = query.from(MedicalEncounterEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate filter = spec.toPredicate(root, query, cb);
+            if (filter != null) {
+                predicates.add(filter);
+            }
+        }
+        if (cursorCreatedAt != null && cursorId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("createdAt"), cursorCreatedAt),
+                    cb.and(
+                            cb.equal(root.get("createdAt"), cursorCreatedAt),
+                            cb.lessThan(root.get("id"), cursorId)
+                    )
+            ));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Each branch maps its columns onto the shared KIND, ID, S1..S6, N1, T1 shape.
+    private static final String DIAGNOSIS_BRANCH = """
+            SELECT 'D' AS KIND, ID, DIAGNOSIS_CODE AS S1, DIAGNOSIS_NAME AS S2, IS_PRIMARY AS S3, CREATED_BY AS S4,
+                   CAST(NULL AS VARCHAR2(1)) AS S5, CAST(NULL AS VARCHAR2(1)) AS S6, SORT_ORDER AS N1, CREATED_AT AS T1
+              FROM CMH.MEDICAL_ENCOUNTER_DIAGNOSIS
+             WHERE ENCOUNTER_ID = :encounterId
+            """;
+    private static final String ASSET_BRANCH = """
+            SELECT 'A', ID, ASSET_TYPE, TEMPLATE_CODE, OBJECT_KEY, CREATED_BY,
+                   CAST(NULL AS VARCHAR2(1)), CAST(NULL AS VARCHAR2(1)), PATIENT_ID, CREATED_AT
+              FROM CMH.MEDICAL_ENCOUNTER_ASSET
+             WHERE ENCOUNTER_ID = :encounterId
+            """;
+    private static final String HISTORY_BRANCH = """
+            SELECT 'H', ID, EVENT_TYPE, FIELD_NAME, OLD_VALUE, NEW_VALUE, REASON, CHANGED_BY, CAST(NULL AS NUMBER), CHANGED_AT
+              FROM (
+                SELECT * FROM CMH.MEDICAL_ENCOUNTER_HISTORY
+                 WHERE ENCOUNTER_ID = :encounterId
+                 ORDER BY CHANGED_AT DESC, ID DESC
+              )
+             WHERE ROWNUM <= :historyLimit
+            """;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public MedicalEncounterChildren findEncounterChildren(Long encounterId, boolean withAssets, int historyLimit) {
+        StringBuilder sql = new StringBuilder(DIAGNOSIS_BRANCH);
+        if (withAssets) {
+            sql.append(" UNION ALL ").append(ASSET_BRANCH);
+        }
+        if (historyLimit > 0) {
+            sql.append(" UNION ALL ").append(HISTORY_BRANCH);
+        }
+        Query query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("encounterId", encounterId);
+        if (historyLimit > 0) {
+            query.setParameter("historyLimit", historyLimit);
+        }
+
+        List<MedicalEncounterDiagnosisEntity> diagnoses = new ArrayList<>();
+        List<MedicalEncounterAssetEntity> assets = new ArrayList<>();
+        List<MedicalEncounterHistoryEntity> history = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            // KIND is a CHAR(1) literal, which comes back as Character.
+            String kind = String.valueOf(row[0]);
+            if ("D".equals(kind)) {
+                diagnoses.add(toDiagnosis(encounterId, row));
+            } else if ("A".equals(kind)) {
+                assets.add(toAsset(encounterId, row));
+            } else {
+                history.add(toHistory(encounterId, row));
+            }
+        }
+        // UNION ALL keeps no order; restore the order of the per-table finders.
+        diagnoses.sort(Comparator.comparing(MedicalEncounterDiagnosisEntity::getSortOrder)
+                .thenComparing(MedicalEncounterDiagnosisEntity::getId));
+        assets.sort(Comparator.comparing(MedicalEncounterAssetEntity::getCreatedAt)
+                .thenComparing(MedicalEncounterAssetEntity::getId).reversed());
+        history.sort(Comparator.comparing(MedicalEncounterHistoryEntity::getChangedAt)
+                .thenComparing(MedicalEncounterHistoryEntity::getId).reversed());
+        return new MedicalEncounterChildren(diagnoses, assets, history);
+    }
+
+    private MedicalEncounterDiagnosisEntity toDiagnosis(Long encounterId, Object[] row) {
+        MedicalEncounterDiagnosisEntity entity = new MedicalEncounterDiagnosisEntity();
+        entity.setId(toLong(row[1]));
+        entity.setEncounterId(encounterId);
+        entity.setDiagnosisCode(toText(row[2]));
+        entity.setDiagnosisName(toText(row[3]));
+        entity.setIsPrimary(toText(row[4]));
+        entity.setCreatedBy(toText(row[5]));
+        entity.setSortOrder(((Number) row[8]).intValue());
+        entity.setCreatedAt(toDateTime(row[9]));
+        return entity;
+    }
+
+    private MedicalEncounterAssetEntity toAsset(Long encounterId, Object[] row) {
+        MedicalEncounterAssetEntity entity = new MedicalEncounterAssetEntity();
+        entity.setId(toLong(row[1]));
+        entity.setEncounterId(encounterId);
+        entity.setAssetType(toText(row[2]));
+        entity.setTemplateCode(toText(row[3]));
+        entity.setObjectKey(toText(row[4]));
+        entity.setCreatedBy(toText(row[5]));
+        entity.setPatientId(toLong(row[8]));
+        entity.setCreatedAt(toDateTime(row[9]));
+        return entity;
+    }
+
+    private MedicalEncounterHistoryEntity toHistory(Long encounterId, Object[] row) {
+        MedicalEncounterHistoryEntity entity = new MedicalEncounterHistoryEntity();
+        entity.setId(toLong(row[1]));
+        entity.setEncounterId(encounterId);
+        entity.setEventType(toText(row[2]));
+        entity.setFieldName(toText(row[3]));
+        entity.setOldValue(toText(row[4]));
+        entity.setNewValue(toText(row[5]));
+        entity.setReason(toText(row[6]));
+        entity.setChangedBy(toText(row[7]));
+        entity.setChangedAt(toDateTime(row[9]));
+        return entity;
+    }
+
+    // The UNION columns take their type from the first branch, so CHAR values such as IS_PRIMARY come back
+    // as Character; read every text column through toString rather than a cast.
+    private String toText(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private LocalDateTime toDateTime(Object value) {
+        if (value == null) return null;
+        if (value instanceof Timestamp) return ((Timestamp) value).toLocalDateTime();
+        return new Timestamp(((java.util.Date) value).getTime()).toLocalDateTime();
+    }
+}
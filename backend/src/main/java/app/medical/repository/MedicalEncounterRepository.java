@@ -9,7 +9,8 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface MedicalEncounterRepository extends JpaRepository<MedicalEncounterEntity, Long>, JpaSpecificationExecutor<MedicalEncounterEntity> {
+public interface MedicalEncounterRepository extends JpaRepository<MedicalEncounterEntity, Long>, JpaSpecificationExecutor<MedicalEncounterEntity>,
+        MedicalEncounterQueryRepository {
 
     @Query("select distinct e.diagnosisCode from MedicalEncounterEntity e " +
             "where e.diagnosisCode is not null " +
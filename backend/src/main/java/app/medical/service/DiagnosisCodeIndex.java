@@ -0,0 +1,353 @@
+package app.medical.service;
+
+import app.medical.dto.MedicalDiagnosisCodeRes;
+import app.patient.entity.CodeEntity;
+import app.patient.repository.CodeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory autocomplete over the diagnosis code catalog (code_detail) and every code used on an encounter,
+ * so the diagnosis picker does not run two LIKE queries per keystroke.
+ *
+ * A trie over the codes answers prefix queries ("J45"); when it has fewer than the requested rows, bigram
+ * postings over code and name fill up with infix matches ("천식"). Code prefix matches rank first, then the
+ * number of encounters using the code, then catalog order. Usage counts move after commit as this node saves
+ * encounter diagnoses; the whole index is rebuilt in the background every refreshInterval to pick up other
+ * nodes and catalog edits. Until the first build is done callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class DiagnosisCodeIndex {
+
+    private static final String USAGE_SQL = """
+            SELECT DIAGNOSIS_CODE, MAX(DIAGNOSIS_NAME) AS DIAGNOSIS_NAME, COUNT(DISTINCT ENCOUNTER_ID) AS USAGE_COUNT
+              FROM (
+                SELECT ENCOUNTER_ID, DIAGNOSIS_CODE, DIAGNOSIS_NAME FROM CMH.MEDICAL_ENCOUNTER_DIAGNOSIS
+                UNION ALL
+                SELECT ID, DIAGNOSIS_CODE, NULL FROM CMH.MEDICAL_ENCOUNTER WHERE DIAGNOSIS_CODE IS NOT NULL
+              )
+             GROUP BY DIAGNOSIS_CODE
+            """;
+
+    private static final Comparator<Entry> BY_USAGE = Comparator
+            .comparingInt((Entry e) -> -e.usage)
+            .thenComparingInt(e -> e.sortOrder)
+            .thenComparing(e -> e.code);
+
+    private final JdbcTemplate jdbc;
+    private final CodeRepository codeRepository;
+
+    @Value("${app.medical.diagnosis-autocomplete.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.medical.diagnosis-autocomplete.refresh-interval:10m}")
+    private Duration refreshInterval;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot snapshot;
+    private volatile boolean ready;
+    private volatile long nextRefreshNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public DiagnosisCodeIndex(JdbcTemplate jdbc, CodeRepository codeRepository) {
+        this.jdbc = jdbc;
+        this.codeRepository = codeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        refreshInBackground();
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        Snapshot next = new Snapshot();
+        try {
+            List<CodeEntity> catalog = codeRepository.searchDiagnosisCodes(null, Pageable.unpaged());
+            for (CodeEntity code : catalog) {
+                Entry entry = next.entry(code.getCode(), code.getName());
+                if (entry != null) {
+                    entry.sortOrder = Math.min(entry.sortOrder, code.getSortOrder() == null ? Integer.MAX_VALUE - 1 : code.getSortOrder());
+                }
+            }
+        } catch (Exception ex) {
+            // Same as the database path: without a code catalog, encounter codes alone are offered.
+            log.warn("[DIAGNOSIS-CODES] code catalog unavailable: {}", ex.getMessage());
+        }
+        jdbc.query(USAGE_SQL, rs -> {
+            Entry entry = next.entry(rs.getString("DIAGNOSIS_CODE"), rs.getString("DIAGNOSIS_NAME"));
+            if (entry != null) {
+                entry.usage += rs.getInt("USAGE_COUNT");
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            snapshot = next;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("[DIAGNOSIS-CODES] indexed {} codes in {} ms", next.byKey.size(), (System.nanoTime() - started) / 1_000_000L);
+    }
+
+    /**
+     * Up to limit codes matching the keyword (all codes by usage when it is blank); null until the index is
+     * built, in which case the caller queries the database.
+     */
+    public List<MedicalDiagnosisCodeRes> search(String keyword, int limit) {
+        if (!ready) return null;
+        if (System.nanoTime() - nextRefreshNanos >= 0) {
+            refreshInBackground();
+        }
+        String query = normalize(keyword);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, BY_USAGE.reversed());
+            if (query.isEmpty()) {
+                offerAll(top, snapshot.byKey.values(), limit);
+                return toRes(top, List.of());
+            }
+
+            List<Entry> prefixed = new ArrayList<>();
+            snapshot.collectPrefix(query, prefixed);
+            offerAll(top, prefixed, limit);
+            List<Entry> infix = List.of();
+            if (top.size() < limit) {
+                Set<Entry> prefixSet = new HashSet<>(prefixed);
+                infix = new ArrayList<>();
+                for (Entry entry : snapshot.infixCandidates(query)) {
+                    if (!prefixSet.contains(entry) && (entry.key.contains(query) || entry.nameKey.contains(query))) {
+                        infix.add(entry);
+                    }
+                }
+            }
+            PriorityQueue<Entry> topInfix = new PriorityQueue<>(limit + 1, BY_USAGE.reversed());
+            offerAll(topInfix, infix, limit - top.size());
+            return toRes(top, drain(topInfix));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves usage counts for one encounter once the current transaction commits: codes only in after
+     * count one more encounter, codes only in before one less. Maps are code -> name (name may be null).
+     */
+    public void recordUsageAfterCommit(Map<String, String> before, Map<String, String> after) {
+        Map<String, String> added = new HashMap<>();
+        Set<String> removed = new HashSet<>();
+        Set<String> beforeKeys = new HashSet<>();
+        for (String code : before.keySet()) beforeKeys.add(normalize(code));
+        Set<String> afterKeys = new HashSet<>();
+        for (Map.Entry<String, String> e : after.entrySet()) {
+            String key = normalize(e.getKey());
+            afterKeys.add(key);
+            if (!key.isEmpty() && !beforeKeys.contains(key)) added.put(e.getKey(), e.getValue());
+        }
+        for (String code : before.keySet()) {
+            String key = normalize(code);
+            if (!key.isEmpty() && !afterKeys.contains(key)) removed.add(code);
+        }
+        if (added.isEmpty() && removed.isEmpty()) return;
+
+        Runnable apply = () -> applyUsage(added, removed);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void applyUsage(Map<String, String> added, Collection<String> removed) {
+        if (!ready) return;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, String> e : added.entrySet()) {
+                Entry entry = snapshot.entry(e.getKey(), e.getValue());
+                if (entry != null) entry.usage++;
+            }
+            for (String code : removed) {
+                Entry entry = snapshot.byKey.get(normalize(code));
+                if (entry != null && entry.usage > 0) entry.usage--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) return;
+        nextRefreshNanos = System.nanoTime() + refreshInterval.toNanos();
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception ex) {
+                log.warn("[DIAGNOSIS-CODES] rebuild failed: {}", ex.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        }, "diagnosis-code-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private static void offerAll(PriorityQueue<Entry> top, Collection<Entry> entries, int limit) {
+        if (limit <= 0) return;
+        for (Entry entry : entries) {
+            top.offer(entry);
+            if (top.size() > limit) top.poll();
+        }
+    }
+
+    private static List<Entry> drain(PriorityQueue<Entry> top) {
+        List<Entry> list = new ArrayList<>(top);
+        list.sort(BY_USAGE);
+        return list;
+    }
+
+    private static List<MedicalDiagnosisCodeRes> toRes(PriorityQueue<Entry> first, List<Entry> rest) {
+        List<MedicalDiagnosisCodeRes> result = new ArrayList<>(first.size() + rest.size());
+        for (Entry entry : drain(first)) result.add(entry.toRes());
+        for (Entry entry : rest) result.add(entry.toRes());
+        return result;
+    }
+
+    // Lower-cased, NFC, without whitespace and dots, so "J45.9", "j459" and "J 45.9" are the same code.
+    static String normalize(String text) {
+        if (text == null) return "";
+        String composed = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(composed.length());
+        for (int i = 0; i < composed.length(); i++) {
+            char c = composed.charAt(i);
+            if (Character.isWhitespace(c) || c == '.') continue;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        private final String code;
+        private final String key;
+        private String name;
+        private String nameKey = "";
+        private int usage;
+        // Catalog sort order; codes seen only on encounters sort after every catalog code.
+        private int sortOrder = Integer.MAX_VALUE;
+
+        private Entry(String code, String key) {
+            this.code = code;
+            this.key = key;
+        }
+
+        private MedicalDiagnosisCodeRes toRes() {
+            MedicalDiagnosisCodeRes res = new MedicalDiagnosisCodeRes();
+            res.setCode(code);
+            res.setName(name);
+            return res;
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private Entry entry;
+    }
+
+    // One generation of the index; replaced whole by rebuild, extended in place by applyUsage.
+    private static final class Snapshot {
+        private final Map<String, Entry> byKey = new HashMap<>();
+        private final TrieNode root = new TrieNode();
+        // Single characters and bigrams of code and name -> entries containing them.
+        private final Map<String, Set<Entry>> grams = new HashMap<>();
+
+        private Entry entry(String code, String name) {
+            String key = normalize(code);
+            if (key.isEmpty()) return null;
+            Entry entry = byKey.get(key);
+            if (entry == null) {
+                entry = new Entry(code.trim(), key);
+                byKey.put(key, entry);
+                TrieNode node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new TrieNode());
+                }
+                node.entry = entry;
+                addGrams(entry, key);
+            }
+            if (entry.name == null && name != null && !name.trim().isEmpty()) {
+                entry.name = name.trim();
+                entry.nameKey = normalize(entry.name);
+                addGrams(entry, entry.nameKey);
+            }
+            return entry;
+        }
+
+        private void addGrams(Entry entry, String text) {
+            for (int i = 0; i < text.length(); i++) {
+                grams.computeIfAbsent(text.substring(i, i + 1), k -> new HashSet<>()).add(entry);
+                if (i + 1 < text.length()) {
+                    grams.computeIfAbsent(text.substring(i, i + 2), k -> new HashSet<>()).add(entry);
+                }
+            }
+        }
+
+        private void collectPrefix(String prefix, List<Entry> out) {
+            TrieNode node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) return;
+            List<TrieNode> stack = new ArrayList<>();
+            stack.add(node);
+            while (!stack.isEmpty()) {
+                TrieNode current = stack.remove(stack.size() - 1);
+                if (current.entry != null) out.add(current.entry);
+                stack.addAll(current.children.values());
+            }
+        }
+
+        // Entries holding every bigram of the query (its only character when it has one); callers verify.
+        private Collection<Entry> infixCandidates(String query) {
+            if (query.length() == 1) {
+                return grams.getOrDefault(query, Set.of());
+            }
+            Set<Entry> smallest = null;
+            for (int i = 0; i + 1 < query.length(); i++) {
+                Set<Entry> postings = grams.get(query.substring(i, i + 2));
+                if (postings == null) return Set.of();
+                if (smallest == null || postings.size() < smallest.size()) smallest = postings;
+            }
+            return smallest;
+        }
+    }
+}
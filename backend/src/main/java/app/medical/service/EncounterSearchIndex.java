@@ -0,0 +1,441 @@
+package app.medical.service;
+
+import app.medical.entity.MedicalEncounterEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bigram inverted index over the encounter list keyword fields (patient name, patient no, diagnosis
+ * code), so a keyword is resolved to encounter ids before the paged query instead of running a
+ * leading-wildcard LIKE over every MEDICAL_ENCOUNTER row.
+ *
+ * Text is NFC-normalized, lower-cased and stripped of whitespace, so "홍 길동" finds 홍길동 and
+ * decomposed Hangul matches composed Hangul. Patient names are also indexed by their initial
+ * consonants, so "ㅎㄱㄷ" finds 홍길동. Bigrams only narrow the candidates; each candidate is checked
+ * against its stored text before it is returned.
+ *
+ * The same document is stored in MEDICAL_ENCOUNTER.SEARCH_TEXT, and the LIKE fallback matches the
+ * normalized keyword against that column. Both paths therefore answer the same "document contains
+ * keyword" question, initial consonants included. Rows written without it (other systems, rows from
+ * before the column) are filled in by the build and the catch-up.
+ *
+ * Built from MEDICAL_ENCOUNTER after startup, updated after commit for writes on this node and caught
+ * up from CREATED_AT / UPDATED_AT every refreshInterval for rows written elsewhere. The catch-up and
+ * its SEARCH_TEXT backfill run on a background thread outside the caller's transaction, so a search
+ * never waits for them; rows whose backfill failed are retried on the next catch-up. Until the first
+ * build is done, and for one-character keywords, callers fall back to the LIKE query.
+ */
+@Slf4j
+@Component
+public class EncounterSearchIndex {
+
+    private static final char[] INITIAL_CONSONANTS = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ".toCharArray();
+    // A control character: normalize() drops it from keywords, so no match can span two fields.
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final char LIKE_ESCAPE = '\\';
+    private static final String SELECT_SQL =
+            "SELECT ID, PATIENT_NAME, PATIENT_NO, DIAGNOSIS_CODE, SEARCH_TEXT FROM CMH.MEDICAL_ENCOUNTER";
+    private static final String BACKFILL_SQL = "UPDATE CMH.MEDICAL_ENCOUNTER SET SEARCH_TEXT = ? WHERE ID = ?";
+    private static final int BACKFILL_BATCH = 500;
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.medical.search-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.medical.search-index.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.medical.search-index.max-ids:2000}")
+    private int maxIds;
+
+    @Value("${app.medical.search-index.refresh-interval:5s}")
+    private Duration refreshInterval;
+
+    // Catch-up re-reads this much before the last sync, for commits that were in flight and for clock skew.
+    @Value("${app.medical.search-index.catch-up-overlap:1m}")
+    private Duration catchUpOverlap;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, PostingList> postings = new HashMap<>();
+    private Map<Long, String> documents = new HashMap<>();
+    private volatile boolean ready;
+    private volatile LocalDateTime syncedAt;
+    private volatile long nextSyncNanos;
+    private final AtomicBoolean syncing = new AtomicBoolean();
+    // [id, document, document] rows whose SEARCH_TEXT write failed; retried by the next catch-up.
+    private final ConcurrentLinkedQueue<Object[]> pendingBackfill = new ConcurrentLinkedQueue<>();
+
+    public EncounterSearchIndex(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread builder = new Thread(this::rebuild, "encounter-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        Builder builder = new Builder();
+        List<Object[]> stale = new ArrayList<>();
+        try {
+            RowCallbackHandler handler = rs -> {
+                Object[] row = toRow(rs);
+                builder.add((Long) row[0], (String) row[1]);
+                if (row[2] != null) stale.add(row);
+            };
+            jdbc.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_SQL + " ORDER BY ID",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Math.max(fetchSize, 1));
+                return ps;
+            }, handler);
+        } catch (DataAccessException ex) {
+            log.warn("[ENCOUNTER-SEARCH] build failed, keyword search stays on LIKE: {}", ex.getMessage());
+            return;
+        }
+
+        install(builder, startedAt);
+        log.info("[ENCOUNTER-SEARCH] indexed {} encounters, {} grams in {} ms",
+                builder.documents.size(), builder.postings.size(), (System.nanoTime() - started) / 1_000_000L);
+        backfill(stale);
+    }
+
+    // Builds a fresh index off to the side; install swaps it in.
+    static final class Builder {
+
+        private final Map<Integer, PostingList> postings = new HashMap<>();
+        private final Map<Long, String> documents = new HashMap<>();
+
+        void add(long id, String document) {
+            documents.put(id, document);
+            for (int gram : gramsOf(document)) {
+                postings.computeIfAbsent(gram, k -> new PostingList()).add(id);
+            }
+        }
+    }
+
+    void install(Builder builder, LocalDateTime builtAt) {
+        lock.writeLock().lock();
+        try {
+            postings = builder.postings;
+            documents = builder.documents;
+            syncedAt = builtAt;
+            nextSyncNanos = System.nanoTime();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * LIKE pattern for SEARCH_TEXT that matches exactly the documents find() returns for the keyword
+     * (escape character '\\').
+     */
+    public static String likePattern(String keyword) {
+        String query = normalize(keyword);
+        StringBuilder sb = new StringBuilder(query.length() + 2).append('%');
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) sb.append(LIKE_ESCAPE);
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
+
+    public static char likeEscape() {
+        return LIKE_ESCAPE;
+    }
+
+    /**
+     * Encounter ids whose patient name, patient no or diagnosis code contain the keyword, in no
+     * particular order. Null when the index cannot answer (not built yet, keyword shorter than two
+     * characters, or more than maxIds matches); the caller then uses the LIKE query.
+     */
+    public List<Long> find(String keyword) {
+        if (!ready) return null;
+        String query = normalize(keyword);
+        if (query.length() < 2) return null;
+        catchUpIfDue();
+
+        Set<Integer> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < query.length(); i++) {
+            grams.add(gram(query.charAt(i), query.charAt(i + 1)));
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(grams.size());
+            for (Integer gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list == null) return List.of();
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            PostingList smallest = lists.get(0);
+            List<Long> ids = new ArrayList<>();
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(id)) continue candidates;
+                }
+                if (!documents.get(id).contains(query)) continue;
+                if (ids.size() == maxIds) return null;
+                ids.add(id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Stored with the row so the LIKE fallback matches the same text; call before saving.
+    public static String searchTextOf(MedicalEncounterEntity entity) {
+        return documentOf(entity.getPatientName(), entity.getPatientNo(), entity.getDiagnosisCode());
+    }
+
+    // Re-indexes the encounter once the current transaction commits (right away when there is none).
+    public void indexAfterCommit(MedicalEncounterEntity entity) {
+        long id = entity.getId();
+        String document = searchTextOf(entity);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(id, document);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(id, document);
+            }
+        });
+    }
+
+    // Starts the catch-up on its own thread when it is due; the search answers from the index as it is.
+    private void catchUpIfDue() {
+        if (System.nanoTime() - nextSyncNanos < 0) return;
+        if (!syncing.compareAndSet(false, true)) return;
+        Thread catchUp = new Thread(this::catchUp, "encounter-search-catch-up");
+        catchUp.setDaemon(true);
+        catchUp.start();
+    }
+
+    private void catchUp() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp from = Timestamp.valueOf(syncedAt.minus(catchUpOverlap));
+            List<Object[]> rows = jdbc.query(
+                    SELECT_SQL + " WHERE UPDATED_AT >= ? UNION " + SELECT_SQL + " WHERE CREATED_AT >= ?",
+                    (rs, rowNum) -> toRow(rs), from, from);
+            List<Object[]> stale = new ArrayList<>();
+            for (Object[] row : rows) {
+                put((Long) row[0], (String) row[1]);
+                if (row[2] != null) stale.add(row);
+            }
+            syncedAt = now;
+            backfill(stale);
+        } catch (RuntimeException ex) {
+            log.warn("[ENCOUNTER-SEARCH] catch-up failed: {}", ex.getMessage());
+        } finally {
+            nextSyncNanos = System.nanoTime() + refreshInterval.toNanos();
+            syncing.set(false);
+        }
+    }
+
+    // [id, document, document again when the stored SEARCH_TEXT differs (needs a backfill) else null].
+    private Object[] toRow(ResultSet rs) throws SQLException {
+        String document = documentOf(rs.getString("PATIENT_NAME"), rs.getString("PATIENT_NO"), rs.getString("DIAGNOSIS_CODE"));
+        boolean stale = !document.equals(rs.getString("SEARCH_TEXT"));
+        return new Object[]{rs.getLong("ID"), document, stale ? document : null};
+    }
+
+    // Writes SEARCH_TEXT for rows that lack it, plus earlier failures; UPDATED_AT is left alone so the
+    // catch-up does not see them again. Rows not written are kept for the next catch-up.
+    private void backfill(List<Object[]> stale) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] row; (row = pendingBackfill.poll()) != null; ) {
+            rows.add(row);
+        }
+        rows.addAll(stale);
+        for (int from = 0; from < rows.size(); from += BACKFILL_BATCH) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + BACKFILL_BATCH, rows.size()));
+            List<Object[]> args = new ArrayList<>(batch.size());
+            for (Object[] row : batch) {
+                args.add(new Object[]{row[2], row[0]});
+            }
+            try {
+                jdbc.batchUpdate(BACKFILL_SQL, args);
+            } catch (DataAccessException ex) {
+                log.warn("[ENCOUNTER-SEARCH] search text backfill failed, {} rows retried on the next catch-up: {}",
+                        rows.size() - from, ex.getMessage());
+                pendingBackfill.addAll(rows.subList(from, rows.size()));
+                return;
+            }
+        }
+        if (!rows.isEmpty()) {
+            log.info("[ENCOUNTER-SEARCH] wrote search text for {} encounters", rows.size());
+        }
+    }
+
+    private void put(long id, String document) {
+        if (!ready) return;
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(id, document);
+            if (Objects.equals(previous, document)) return;
+            int[] oldGrams = previous == null ? new int[0] : gramsOf(previous);
+            int[] newGrams = gramsOf(document);
+            for (int gram : oldGrams) {
+                if (Arrays.binarySearch(newGrams, gram) >= 0) continue;
+                PostingList list = postings.get(gram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+            for (int gram : newGrams) {
+                if (Arrays.binarySearch(oldGrams, gram) >= 0) continue;
+                postings.computeIfAbsent(gram, k -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Fields are joined with a separator that normalize() never lets through, so no gram or match spans two fields.
+    static String documentOf(String patientName, String patientNo, String diagnosisCode) {
+        String name = normalize(patientName);
+        StringBuilder sb = new StringBuilder(name.length() * 2 + 40);
+        sb.append(name).append(FIELD_SEPARATOR)
+                .append(normalize(patientNo)).append(FIELD_SEPARATOR)
+                .append(normalize(diagnosisCode)).append(FIELD_SEPARATOR);
+        appendInitialConsonants(sb, name);
+        return sb.toString();
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String composed = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(composed.length());
+        for (int i = 0; i < composed.length(); i++) {
+            char c = composed.charAt(i);
+            if (Character.isWhitespace(c) || Character.isISOControl(c)) continue;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // 홍길동 -> ㅎㄱㄷ; only written for names that contain Hangul syllables.
+    private static void appendInitialConsonants(StringBuilder sb, String name) {
+        boolean hangul = false;
+        for (int i = 0; i < name.length() && !hangul; i++) {
+            hangul = isHangulSyllable(name.charAt(i));
+        }
+        if (!hangul) return;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sb.append(isHangulSyllable(c) ? INITIAL_CONSONANTS[(c - 0xAC00) / 588] : c);
+        }
+    }
+
+    private static boolean isHangulSyllable(char c) {
+        return c >= 0xAC00 && c <= 0xD7A3;
+    }
+
+    // Distinct bigrams of the document, sorted.
+    private static int[] gramsOf(String document) {
+        int[] grams = new int[Math.max(document.length() - 1, 0)];
+        int count = 0;
+        for (int i = 0; i + 1 < document.length(); i++) {
+            char a = document.charAt(i);
+            char b = document.charAt(i + 1);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR) continue;
+            grams[count++] = gram(a, b);
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int gram(char a, char b) {
+        return (a << 16) | b;
+    }
+
+    // Sorted encounter ids; appends are O(1) while ids arrive in order, as they do during a build.
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) return;
+            at = -at - 1;
+            grow();
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
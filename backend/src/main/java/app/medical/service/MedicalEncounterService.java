@@ -1,11 +1,16 @@
 package app.medical.service;
 
+import app.common.cache.ApproximateCountCache;
+import app.common.history.HistoryJournal;
+import app.common.history.HistoryRecord;
+import app.common.history.HistoryTable;
 import app.medical.dto.*;
 import app.medical.entity.MedicalEncounterAssetEntity;
 import app.medical.entity.MedicalEncounterDiagnosisEntity;
 import app.medical.entity.MedicalEncounterEntity;
 import app.medical.entity.MedicalEncounterHistoryEntity;
 import app.medical.repository.MedicalEncounterAssetRepository;
+import app.medical.repository.MedicalEncounterChildren;
 import app.medical.repository.MedicalEncounterDiagnosisRepository;
 import app.medical.repository.MedicalEncounterHistoryRepository;
 import app.medical.repository.MedicalEncounterRepository;
@@ -21,9 +26,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.criteria.Predicate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,25 +43,40 @@ import org.springframework.web.multipart.MultipartFile;
 @Transactional
 public class MedicalEncounterService {
 
+    private static final HistoryTable HISTORY_TABLE =
+            HistoryTable.of("CMH.MEDICAL_ENCOUNTER_HISTORY", "ENCOUNTER_ID", "CMH.MEDICAL_ENCOUNTER_HIS_SEQ");
+
     private final MedicalEncounterRepository encounterRepository;
     private final MedicalEncounterHistoryRepository historyRepository;
     private final MedicalEncounterAssetRepository assetRepository;
     private final MedicalEncounterDiagnosisRepository diagnosisRepository;
     private final CodeRepository codeRepository;
     private final PatientStorageService patientStorageService;
+    private final HistoryJournal historyJournal;
+    private final EncounterSearchIndex searchIndex;
+    private final ApproximateCountCache countCache;
+    private final DiagnosisCodeIndex diagnosisCodeIndex;
 
     public MedicalEncounterService(MedicalEncounterRepository encounterRepository,
                                    MedicalEncounterHistoryRepository historyRepository,
                                    MedicalEncounterAssetRepository assetRepository,
                                    MedicalEncounterDiagnosisRepository diagnosisRepository,
                                    CodeRepository codeRepository,
-                                   PatientStorageService patientStorageService) {
+                                   PatientStorageService patientStorageService,
+                                   HistoryJournal historyJournal,
+                                   EncounterSearchIndex searchIndex,
+                                   ApproximateCountCache countCache,
+                                   DiagnosisCodeIndex diagnosisCodeIndex) {
         this.encounterRepository = encounterRepository;
         this.historyRepository = historyRepository;
         this.assetRepository = assetRepository;
         this.diagnosisRepository = diagnosisRepository;
         this.codeRepository = codeRepository;
         this.patientStorageService = patientStorageService;
+        this.historyJournal = historyJournal;
+        this.searchIndex = searchIndex;
+        this.countCache = countCache;
+        this.diagnosisCodeIndex = diagnosisCodeIndex;
     }
 
     @Transactional(readOnly = true)
@@ -71,15 +93,99 @@ public class MedicalEncounterService {
         Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100),
                 Sort.by(Sort.Direction.DESC, "createdAt"));
 
-        Specification<MedicalEncounterEntity> spec = (root, query, cb) -> {
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        // Ids from the search index when it can answer; otherwise the keyword goes to the LIKE query.
+        List<Long> keywordIds = hasKeyword ? searchIndex.find(keyword) : null;
+        if (keywordIds != null && keywordIds.isEmpty()) {
+            return new PageRes<>(List.of(), pageable.getPageNumber(), pageable.getPageSize(), 0L, 0);
+        }
+
+        Specification<MedicalEncounterEntity> spec =
+                encounterSpec(keyword, keywordIds, status, doctorId, fromDate, toDate, includeInactive);
+        Page<MedicalEncounterEntity> result = encounterRepository.findAll(spec, pageable);
+        List<MedicalEncounterListItemRes> items = result.getContent().stream().map(this::toListRes).toList();
+        return new PageRes<>(items, result.getNumber(), result.getSize(), result.getTotalElements(), result.getTotalPages());
+    }
+
+    // Slice mode of findEncounters for infinite scroll: keyset on (createdAt, id), no count query.
+    @Transactional(readOnly = true)
+    public PageRes<MedicalEncounterListItemRes> findEncounterSlice(
+            String keyword,
+            String status,
+            String doctorId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean includeInactive,
+            String cursor,
+            int size,
+            boolean withTotal
+    ) {
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.trim().isEmpty()) {
+            String[] parts = decodeCursor(cursor.trim());
+            cursorCreatedAt = LocalDateTime.parse(parts[0]);
+            cursorId = Long.valueOf(parts[1]);
+        }
+
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        List<Long> keywordIds = hasKeyword ? searchIndex.find(keyword) : null;
+        if (keywordIds != null && keywordIds.isEmpty()) {
+            return PageRes.slice(List.of(), pageSize, false, null, withTotal ? 0L : null);
+        }
+
+        Specification<MedicalEncounterEntity> spec =
+                encounterSpec(keyword, keywordIds, status, doctorId, fromDate, toDate, includeInactive);
+        // One extra row tells whether another page exists without a count query.
+        List<MedicalEncounterEntity> rows = encounterRepository.findEncounterSlice(spec, cursorCreatedAt, cursorId, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = hasNext ? encodeCursor(rows.get(rows.size() - 1)) : null;
+        Long approximateTotal = null;
+        if (withTotal) {
+            String countKey = String.join("|", "medical-encounters", String.valueOf(blankToNull(keyword)),
+                    String.valueOf(blankToNull(status)), String.valueOf(blankToNull(doctorId)),
+                    String.valueOf(fromDate), String.valueOf(toDate), String.valueOf(Boolean.TRUE.equals(includeInactive)));
+            approximateTotal = countCache.get(countKey, () -> encounterRepository.count(spec));
+        }
+        return PageRes.slice(rows.stream().map(this::toListRes).toList(), pageSize, hasNext, nextCursor, approximateTotal);
+    }
+
+    private Specification<MedicalEncounterEntity> encounterSpec(
+            String keyword,
+            List<Long> keywordIds,
+            String status,
+            String doctorId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean includeInactive
+    ) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            if (keyword != null && !keyword.trim().isEmpty()) {
+            if (keywordIds != null) {
+                // Oracle allows at most 1000 expressions per IN list.
+                List<Predicate> chunks = new ArrayList<>();
+                for (int from = 0; from < keywordIds.size(); from += 1000) {
+                    chunks.add(root.get("id").in(keywordIds.subList(from, Math.min(from + 1000, keywordIds.size()))));
+                }
+                predicates.add(cb.or(chunks.toArray(new Predicate[0])));
+            } else if (keyword != null && !keyword.trim().isEmpty()) {
+                // Same text and normalization as the index, so both paths return the same rows.
+                // Rows not yet given SEARCH_TEXT by the index build keep the plain column match.
                 String like = "%" + keyword.trim().toLowerCase() + "%";
                 predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("patientName")), like),
-                        cb.like(cb.lower(root.get("patientNo")), like),
-                        cb.like(cb.lower(root.get("diagnosisCode")), like)
+                        cb.like(root.get("searchText"), EncounterSearchIndex.likePattern(keyword), EncounterSearchIndex.likeEscape()),
+                        cb.and(
+                                cb.isNull(root.get("searchText")),
+                                cb.or(
+                                        cb.like(cb.lower(root.get("patientName")), like),
+                                        cb.like(cb.lower(root.get("patientNo")), like),
+                                        cb.like(cb.lower(root.get("diagnosisCode")), like)
+                                ))
                 ));
             }
             if (status != null && !status.trim().isEmpty()) {
@@ -100,10 +206,26 @@ public class MedicalEncounterService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
+    }
 
-        Page<MedicalEncounterEntity> result = encounterRepository.findAll(spec, pageable);
-        List<MedicalEncounterListItemRes> items = result.getContent().stream().map(this::toListRes).toList();
-        return new PageRes<>(items, result.getNumber(), result.getSize(), result.getTotalElements(), result.getTotalPages());
+    private String encodeCursor(MedicalEncounterEntity last) {
+        String raw = last.getCreatedAt() + "," + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
     }
 
     @Transactional(readOnly = true)
@@ -112,10 +234,33 @@ public class MedicalEncounterService {
         return toDetailRes(entity);
     }
 
+    // Detail with assets and/or the latest history embedded; diagnoses and the embedded lists come from one query.
+    @Transactional(readOnly = true)
+    public MedicalEncounterDetailRes findEncounter(Long encounterId, boolean embedAssets, boolean embedHistory, int historySize) {
+        MedicalEncounterEntity entity = findEntity(encounterId);
+        int historyLimit = embedHistory ? Math.min(Math.max(historySize, 1), 200) : 0;
+        MedicalEncounterChildren children = encounterRepository.findEncounterChildren(encounterId, embedAssets, historyLimit);
+        MedicalEncounterDetailRes res = toDetailRes(entity, children.getDiagnoses());
+        if (embedAssets) {
+            res.setAssets(toAssetResList(children.getAssets()));
+        }
+        if (embedHistory) {
+            res.setHistory(children.getHistory().stream().map(this::toHistoryRes).toList());
+        }
+        return res;
+    }
+
     public MedicalEncounterDetailRes updateEncounter(Long encounterId, MedicalEncounterUpdateReq req) {
         MedicalEncounterEntity entity = findEntity(encounterId);
         String changedBy = defaultText(req.getUpdatedBy(), "doctor-workspace");
         int changed = 0;
+        // The diagnosis rows are only read when the request can change the encounter's codes.
+        boolean codesMayChange = req.getDiagnoses() != null
+                || (req.getDiagnosisCode() != null && !Objects.equals(blankToNull(req.getDiagnosisCode()), blankToNull(entity.getDiagnosisCode())));
+        List<MedicalEncounterDiagnosisEntity> currentDiagnoses = codesMayChange
+                ? diagnosisRepository.findByEncounterIdOrderBySortOrderAscIdAsc(encounterId)
+                : List.of();
+        Map<String, String> codesBefore = diagnosisCodesOf(entity.getDiagnosisCode(), currentDiagnoses);
 
         changed += applyChange(entity.getDoctorId(), req.getDoctorId(), entity::setDoctorId,
                 () -> addHistory(encounterId, "UPDATE", "doctorId", entity.getDoctorId(), req.getDoctorId(), null, changedBy));
@@ -137,8 +282,9 @@ public class MedicalEncounterService {
                 () -> addHistory(encounterId, "UPDATE", "memo", entity.getMemo(), req.getMemo(), null, changedBy));
 
         if (req.getDiagnoses() != null) {
-            String oldDiagnosisSnapshot = diagnosesSnapshot(diagnosisRepository.findByEncounterIdOrderBySortOrderAscIdAsc(encounterId));
+            String oldDiagnosisSnapshot = diagnosesSnapshot(currentDiagnoses);
             List<MedicalEncounterDiagnosisEntity> updatedDiagnoses = replaceDiagnoses(encounterId, req.getDiagnoses(), changedBy);
+            currentDiagnoses = updatedDiagnoses;
             String newDiagnosisSnapshot = diagnosesSnapshot(updatedDiagnoses);
             String oldPrimaryCode = blankToNull(entity.getDiagnosisCode());
             String newPrimaryCode = updatedDiagnoses.stream()
@@ -160,7 +306,12 @@ public class MedicalEncounterService {
 
         entity.setUpdatedBy(changedBy);
         entity.setUpdatedAt(LocalDateTime.now());
+        entity.setSearchText(EncounterSearchIndex.searchTextOf(entity));
         MedicalEncounterEntity saved = encounterRepository.save(entity);
+        searchIndex.indexAfterCommit(saved);
+        if (codesMayChange) {
+            diagnosisCodeIndex.recordUsageAfterCommit(codesBefore, diagnosisCodesOf(saved.getDiagnosisCode(), currentDiagnoses));
+        }
         if (changed == 0) {
             addHistory(encounterId, "UPDATE", null, null, null, "no field changed", changedBy);
         }
@@ -210,16 +361,17 @@ public class MedicalEncounterService {
     @Transactional(readOnly = true)
     public List<MedicalEncounterAssetRes> findAssets(Long encounterId) {
         findEntity(encounterId);
-        return assetRepository.findByEncounterIdOrderByCreatedAtDescIdDesc(encounterId)
-                .stream()
-                .map(this::toAssetRes)
-                .toList();
+        return toAssetResList(assetRepository.findByEncounterIdOrderByCreatedAtDescIdDesc(encounterId));
     }
 
     @Transactional(readOnly = true)
     public List<MedicalDiagnosisCodeRes> findDiagnosisCodes(String keyword, int size) {
         String normalizedKeyword = blankToNull(keyword);
         int limitedSize = Math.min(Math.max(size, 1), 50);
+        List<MedicalDiagnosisCodeRes> indexed = diagnosisCodeIndex.search(normalizedKeyword, limitedSize);
+        if (indexed != null) {
+            return indexed;
+        }
         Pageable pageable = PageRequest.of(0, limitedSize);
 
         Map<String, MedicalDiagnosisCodeRes> merged = new LinkedHashMap<>();
@@ -316,6 +468,10 @@ public class MedicalEncounterService {
     }
 
     private MedicalEncounterDetailRes toDetailRes(MedicalEncounterEntity entity) {
+        return toDetailRes(entity, diagnosisRepository.findByEncounterIdOrderBySortOrderAscIdAsc(entity.getId()));
+    }
+
+    private MedicalEncounterDetailRes toDetailRes(MedicalEncounterEntity entity, List<MedicalEncounterDiagnosisEntity> diagnoses) {
         MedicalEncounterDetailRes res = new MedicalEncounterDetailRes();
         res.setId(entity.getId());
         res.setVisitId(entity.getVisitId());
@@ -329,7 +485,6 @@ public class MedicalEncounterService {
         res.setAssessment(entity.getAssessment());
         res.setPlanNote(entity.getPlanNote());
         res.setDiagnosisCode(entity.getDiagnosisCode());
-        List<MedicalEncounterDiagnosisEntity> diagnoses = diagnosisRepository.findByEncounterIdOrderBySortOrderAscIdAsc(entity.getId());
         if (diagnoses.isEmpty() && blankToNull(entity.getDiagnosisCode()) != null) {
             MedicalEncounterDiagnosisRes fallback = new MedicalEncounterDiagnosisRes();
             fallback.setId(null);
@@ -367,7 +522,17 @@ public class MedicalEncounterService {
         return res;
     }
 
+    private List<MedicalEncounterAssetRes> toAssetResList(List<MedicalEncounterAssetEntity> assets) {
+        Map<String, String> urls = patientStorageService.getPresignedUrls(
+                assets.stream().map(MedicalEncounterAssetEntity::getObjectKey).toList());
+        return assets.stream().map(asset -> toAssetRes(asset, urls.get(asset.getObjectKey()))).toList();
+    }
+
     private MedicalEncounterAssetRes toAssetRes(MedicalEncounterAssetEntity entity) {
+        return toAssetRes(entity, patientStorageService.getPresignedUrl(entity.getObjectKey()));
+    }
+
+    private MedicalEncounterAssetRes toAssetRes(MedicalEncounterAssetEntity entity, String fileUrl) {
         MedicalEncounterAssetRes res = new MedicalEncounterAssetRes();
         res.setId(entity.getId());
         res.setEncounterId(entity.getEncounterId());
@@ -375,7 +540,7 @@ public class MedicalEncounterService {
         res.setAssetType(entity.getAssetType());
         res.setTemplateCode(entity.getTemplateCode());
         res.setObjectKey(entity.getObjectKey());
-        res.setFileUrl(patientStorageService.getPresignedUrl(entity.getObjectKey()));
+        res.setFileUrl(fileUrl);
         res.setCreatedBy(entity.getCreatedBy());
         res.setCreatedAt(entity.getCreatedAt());
         return res;
@@ -435,6 +600,18 @@ public class MedicalEncounterService {
         return diagnosisRepository.saveAll(entities);
     }
 
+    // Codes an encounter counts toward for autocomplete usage: its diagnosis rows plus the primary code.
+    private Map<String, String> diagnosisCodesOf(String primaryCode, List<MedicalEncounterDiagnosisEntity> diagnoses) {
+        Map<String, String> codes = new LinkedHashMap<>();
+        for (MedicalEncounterDiagnosisEntity diagnosis : diagnoses) {
+            String code = blankToNull(diagnosis.getDiagnosisCode());
+            if (code != null) codes.putIfAbsent(code, blankToNull(diagnosis.getDiagnosisName()));
+        }
+        String primary = blankToNull(primaryCode);
+        if (primary != null) codes.putIfAbsent(primary, null);
+        return codes;
+    }
+
     private String diagnosesSnapshot(List<MedicalEncounterDiagnosisEntity> list) {
         if (list == null || list.isEmpty()) return null;
         return list.stream()
@@ -451,16 +628,8 @@ public class MedicalEncounterService {
     }
 
     private void addHistory(Long encounterId, String eventType, String field, String oldValue, String newValue, String reason, String changedBy) {
-        MedicalEncounterHistoryEntity h = new MedicalEncounterHistoryEntity();
-        h.setEncounterId(encounterId);
-        h.setEventType(eventType);
-        h.setFieldName(field);
-        h.setOldValue(oldValue);
-        h.setNewValue(newValue);
-        h.setReason(reason);
-        h.setChangedBy(changedBy);
-        h.setChangedAt(LocalDateTime.now());
-        historyRepository.save(h);
+        historyJournal.append(HISTORY_TABLE,
+                new HistoryRecord(encounterId, eventType, field, oldValue, newValue, reason, changedBy));
     }
 
     private int applyChange(String oldValue, String newValue, Consumer<String> setter, Runnable historyAction) {
@@ -0,0 +1,44 @@
+package app.ops.controller;
+
+import app.common.ApiResponse;
+import app.ops.dto.AuditMetricsRes;
+import app.ops.dto.CacheMetricsRes;
+import app.ops.dto.RouteMetricsRes;
+import app.ops.service.OpsMetricsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ops/metrics")
+public class OpsMetricsController {
+
+    private final OpsMetricsService opsMetricsService;
+
+    public OpsMetricsController(OpsMetricsService opsMetricsService) {
+        this.opsMetricsService = opsMetricsService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<RouteMetricsRes>>> findRouteMetrics() {
+        return ResponseEntity.ok(new ApiResponse<List<RouteMetricsRes>>().ok(opsMetricsService.findRouteMetrics()));
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<ApiResponse<AuditMetricsRes>> findAuditMetrics() {
+        return ResponseEntity.ok(new ApiResponse<AuditMetricsRes>().ok(opsMetricsService.findAuditMetrics()));
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<ApiResponse<List<CacheMetricsRes>>> findCacheMetrics() {
+        return ResponseEntity.ok(new ApiResponse<List<CacheMetricsRes>>().ok(opsMetricsService.findCacheMetrics()));
+    }
+
+    @GetMapping(value = "/prometheus", produces = "text/plain; version=0.0.4; charset=UTF-8")
+    public ResponseEntity<String> prometheus() {
+        return ResponseEntity.ok(opsMetricsService.toPrometheusText());
+    }
+}
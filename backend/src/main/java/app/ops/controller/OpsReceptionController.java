@@ -0,0 +1,27 @@
+package app.ops.controller;
+
+import app.common.ApiResponse;
+import app.reception.service.ReceptionCensusService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Maintenance of the reception in-memory views; ADMIN only like the rest of /api/ops/**.
+@RestController
+@RequestMapping("/api/ops/reception")
+public class OpsReceptionController {
+
+    private final ReceptionCensusService receptionCensusService;
+
+    public OpsReceptionController(ReceptionCensusService receptionCensusService) {
+        this.receptionCensusService = receptionCensusService;
+    }
+
+    // Re-reads the census of this node from VISIT_REG.
+    @PostMapping("/census/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildCensus() {
+        receptionCensusService.rebuild();
+        return ResponseEntity.ok(new ApiResponse<Void>().ok());
+    }
+}
@@ -0,0 +1,14 @@
+package app.ops.dto;
+
+import lombok.Data;
+
+@Data
+public class AuditMetricsRes {
+    private long enqueued;
+    private long dropped;
+    private long written;
+    private long failed;
+    private long batches;
+    private int queueDepth;
+    private int capacity;
+}
@@ -0,0 +1,19 @@
+package app.ops.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheMetricsRes {
+    private String name;
+    private long hits;
+    private long localHits;
+    private long misses;
+    private double hitRatio;
+    private long loads;
+    private long loadFailures;
+    private double avgLoadMs;
+    private long refreshes;
+    private long puts;
+    private long evictions;
+    private long localEvictions;
+}
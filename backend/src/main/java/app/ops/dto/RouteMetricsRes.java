@@ -0,0 +1,17 @@
+package app.ops.dto;
+
+import lombok.Data;
+
+@Data
+public class RouteMetricsRes {
+    private String method;
+    private String route;
+    private long count;
+    private long errors;
+    private int inFlight;
+    private double avgMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+}
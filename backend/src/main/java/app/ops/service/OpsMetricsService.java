@@ -0,0 +1,127 @@
+package app.ops.service;
+
+import app.common.audit.AuditWriter;
+import app.common.cache.CacheMetrics;
+import app.common.cache.CacheMetricsRegistry;
+import app.common.history.HistoryJournal;
+import app.common.metrics.ApiMetricsRegistry;
+import app.common.metrics.LatencyHistogram;
+import app.common.metrics.RouteMetrics;
+import app.ops.dto.AuditMetricsRes;
+import app.ops.dto.CacheMetricsRes;
+import app.ops.dto.RouteMetricsRes;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class OpsMetricsService {
+
+    private final ApiMetricsRegistry apiMetricsRegistry;
+    private final AuditWriter auditWriter;
+    private final CacheMetricsRegistry cacheMetricsRegistry;
+    private final HistoryJournal historyJournal;
+
+    public OpsMetricsService(ApiMetricsRegistry apiMetricsRegistry, AuditWriter auditWriter,
+                             CacheMetricsRegistry cacheMetricsRegistry, HistoryJournal historyJournal) {
+        this.apiMetricsRegistry = apiMetricsRegistry;
+        this.auditWriter = auditWriter;
+        this.cacheMetricsRegistry = cacheMetricsRegistry;
+        this.historyJournal = historyJournal;
+    }
+
+    public List<RouteMetricsRes> findRouteMetrics() {
+        return apiMetricsRegistry.routes()
+                .stream()
+                .map(this::toRouteMetricsRes)
+                .collect(Collectors.toList());
+    }
+
+    public AuditMetricsRes findAuditMetrics() {
+        AuditMetricsRes dto = new AuditMetricsRes();
+        dto.setEnqueued(auditWriter.getEnqueued());
+        dto.setDropped(auditWriter.getDropped());
+        dto.setWritten(auditWriter.getWritten());
+        dto.setFailed(auditWriter.getFailed());
+        dto.setBatches(auditWriter.getBatches());
+        dto.setQueueDepth(auditWriter.getQueueDepth());
+        dto.setCapacity(auditWriter.getCapacity());
+        return dto;
+    }
+
+    public List<CacheMetricsRes> findCacheMetrics() {
+        return cacheMetricsRegistry.caches()
+                .stream()
+                .map(this::toCacheMetricsRes)
+                .collect(Collectors.toList());
+    }
+
+    public String toPrometheusText() {
+        StringBuilder sb = new StringBuilder(apiMetricsRegistry.toPrometheusText());
+        sb.append(cacheMetricsRegistry.toPrometheusText());
+        sb.append("# HELP audit_events_total Audit events by outcome.\n");
+        sb.append("# TYPE audit_events_total counter\n");
+        sb.append("audit_events_total{outcome=\"enqueued\"} ").append(auditWriter.getEnqueued()).append('\n');
+        sb.append("audit_events_total{outcome=\"dropped\"} ").append(auditWriter.getDropped()).append('\n');
+        sb.append("audit_events_total{outcome=\"written\"} ").append(auditWriter.getWritten()).append('\n');
+        sb.append("audit_events_total{outcome=\"failed\"} ").append(auditWriter.getFailed()).append('\n');
+        sb.append("# HELP audit_queue_depth Audit events waiting in the buffer.\n");
+        sb.append("# TYPE audit_queue_depth gauge\n");
+        sb.append("audit_queue_depth ").append(auditWriter.getQueueDepth()).append('\n');
+        sb.append("# HELP audit_queue_capacity Audit buffer capacity.\n");
+        sb.append("# TYPE audit_queue_capacity gauge\n");
+        sb.append("audit_queue_capacity ").append(auditWriter.getCapacity()).append('\n');
+        sb.append("# HELP history_rows_total Change-history rows written.\n");
+        sb.append("# TYPE history_rows_total counter\n");
+        sb.append("history_rows_total ").append(historyJournal.getRows()).append('\n');
+        sb.append("# HELP history_statements_total Statements issued for change history (batch inserts and id block fetches).\n");
+        sb.append("# TYPE history_statements_total counter\n");
+        sb.append("history_statements_total{kind=\"batch_insert\"} ").append(historyJournal.getBatches()).append('\n');
+        sb.append("history_statements_total{kind=\"sequence\"} ").append(historyJournal.getSequenceCalls()).append('\n');
+        return sb.toString();
+    }
+
+    private RouteMetricsRes toRouteMetricsRes(RouteMetrics metrics) {
+        long[] snapshot = metrics.histogramSnapshot();
+        long count = metrics.getCount();
+
+        RouteMetricsRes dto = new RouteMetricsRes();
+        dto.setMethod(metrics.getMethod());
+        dto.setRoute(metrics.getRoute());
+        dto.setCount(count);
+        dto.setErrors(metrics.getErrors());
+        dto.setInFlight(metrics.getInFlight());
+        dto.setAvgMs(count == 0 ? 0 : millis(metrics.getTotalMicros()) / count);
+        dto.setP50Ms(millis(LatencyHistogram.quantile(snapshot, 0.5)));
+        dto.setP95Ms(millis(LatencyHistogram.quantile(snapshot, 0.95)));
+        dto.setP99Ms(millis(LatencyHistogram.quantile(snapshot, 0.99)));
+        dto.setMaxMs(millis(metrics.getMaxMicros()));
+        return dto;
+    }
+
+    private CacheMetricsRes toCacheMetricsRes(CacheMetrics metrics) {
+        long hits = metrics.getHits();
+        long lookups = hits + metrics.getMisses();
+        long loads = metrics.getLoads();
+
+        CacheMetricsRes dto = new CacheMetricsRes();
+        dto.setName(metrics.getName());
+        dto.setHits(hits);
+        dto.setLocalHits(metrics.getLocalHits());
+        dto.setMisses(metrics.getMisses());
+        dto.setHitRatio(lookups == 0 ? 0 : (double) hits / lookups);
+        dto.setLoads(loads);
+        dto.setLoadFailures(metrics.getLoadFailures());
+        dto.setAvgLoadMs(loads == 0 ? 0 : metrics.getLoadNanos() / 1_000_000.0 / loads);
+        dto.setRefreshes(metrics.getRefreshes());
+        dto.setPuts(metrics.getPuts());
+        dto.setEvictions(metrics.getEvictions());
+        dto.setLocalEvictions(metrics.getLocalEvictions());
+        return dto;
+    }
+
+    private double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -1,21 +1,22 @@
 package app.patient.storage;
 
 import app.common.storage.MinioProperties;
+import app.common.storage.PresignedUrlSigner;
 import io.minio.BucketExistsArgs;
-import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.GetObjectArgs;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
 import io.minio.StatObjectArgs;
-import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -23,10 +24,9 @@ import java.util.UUID;
 @ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "minio")
 public class PatientMinioStorageService implements PatientStorageService {
 
-    private static final String MINIO_REGION = "us-east-1";
-
     private final MinioClient minioClient;
     private final MinioProperties minioProps;
+    private final PresignedUrlSigner presignedUrlSigner;
 
     @Override
     public String save(MultipartFile file, String category) {
@@ -71,29 +71,12 @@ public class PatientMinioStorageService implements PatientStorageService {
 
     @Override
     public String getPresignedUrl(String objectKey) {
-        if (!StringUtils.hasText(objectKey)) {
-            return null;
-        }
-        try {
-            MinioClient presignClient = minioClient;
-            if (StringUtils.hasText(minioProps.getPublicUrl())) {
-                presignClient = MinioClient.builder()
-                        .endpoint(minioProps.getPublicUrl())
-                        .credentials(minioProps.getAccessKey(), minioProps.getSecretKey())
-                        .build();
-            }
+        return presignedUrlSigner.sign(minioProps.getBucketPatient(), objectKey);
+    }
 
-            return presignClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .method(Method.GET)
-                            .region(MINIO_REGION)
-                            .bucket(minioProps.getBucketPatient())
-                            .object(objectKey)
-                            .build()
-            );
-        } catch (Exception e) {
-            throw new RuntimeException("MinIO presigned URL 생성 실패", e);
-        }
+    @Override
+    public Map<String, String> getPresignedUrls(Collection<String> objectKeys) {
+        return presignedUrlSigner.signAll(minioProps.getBucketPatient(), objectKeys);
     }
 
     @Override
@@ -2,9 +2,14 @@ package app.patient.storage;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface PatientStorageService {
     String save(MultipartFile file, String category);
     String getPresignedUrl(String objectKey);
+    // Object key -> URL for the non-blank keys; one call per list instead of one per row.
+    Map<String, String> getPresignedUrls(Collection<String> objectKeys);
     java.io.InputStream openStream(String objectKey);
     String getContentType(String objectKey);
     void delete(String objectKey);
@@ -2,10 +2,24 @@ package app.reception.controller;
 
 import app.common.ApiResponse;
 import app.reception.dto.*;
+import app.reception.service.EmergencyWorklistService;
+import app.reception.service.ReceptionCensusService;
 import app.reception.service.ReceptionService;
+import app.reception.service.ReservationSlotEngine;
+import app.reception.service.VisitHistoryExporter;
+import app.reception.service.WardBedService;
+import app.reception.service.WaitingQueueService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -13,14 +27,124 @@ import java.util.List;
 public class ReceptionController {
 
     private final ReceptionService receptionService;
+    private final WaitingQueueService waitingQueueService;
+    private final VisitHistoryExporter visitHistoryExporter;
+    private final ReservationSlotEngine reservationSlotEngine;
+    private final WardBedService wardBedService;
+    private final EmergencyWorklistService emergencyWorklistService;
+    private final ReceptionCensusService receptionCensusService;
 
-    public ReceptionController(ReceptionService receptionService) {
+    public ReceptionController(ReceptionService receptionService, WaitingQueueService waitingQueueService,
+                               VisitHistoryExporter visitHistoryExporter, ReservationSlotEngine reservationSlotEngine,
+                               WardBedService wardBedService, EmergencyWorklistService emergencyWorklistService,
+                               ReceptionCensusService receptionCensusService) {
         this.receptionService = receptionService;
+        this.waitingQueueService = waitingQueueService;
+        this.visitHistoryExporter = visitHistoryExporter;
+        this.reservationSlotEngine = reservationSlotEngine;
+        this.wardBedService = wardBedService;
+        this.emergencyWorklistService = emergencyWorklistService;
+        this.receptionCensusService = receptionCensusService;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<VisitRes>>> findVisits() {
-        return ResponseEntity.ok(new ApiResponse<List<VisitRes>>().ok(receptionService.findVisits()));
+    public ResponseEntity<ApiResponse<List<VisitRes>>> findVisits(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String deptCode,
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String visitType
+    ) {
+        VisitSearchReq cond = toSearchReq(fromDate, toDate, deptCode, doctorId, status, visitType);
+        return ResponseEntity.ok(new ApiResponse<List<VisitRes>>().ok(receptionService.findVisits(cond)));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<VisitPageRes>> findVisitPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String deptCode,
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String visitType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int size
+    ) {
+        VisitSearchReq cond = toSearchReq(fromDate, toDate, deptCode, doctorId, status, visitType);
+        return ResponseEntity.ok(new ApiResponse<VisitPageRes>().ok(receptionService.findVisitPage(cond, cursor, size)));
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<ApiResponse<List<WaitingQueueItemRes>>> findWaitingQueue(
+            @RequestParam String deptCode,
+            @RequestParam(required = false) String doctorId
+    ) {
+        return ResponseEntity.ok(new ApiResponse<List<WaitingQueueItemRes>>().ok(waitingQueueService.findQueue(deptCode, doctorId)));
+    }
+
+    // "snapshot" event with the current list, then "queue" events (ADDED / UPDATED / REMOVED).
+    @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamWaitingQueue(
+            @RequestParam String deptCode,
+            @RequestParam(required = false) String doctorId
+    ) {
+        return waitingQueueService.subscribe(deptCode, doctorId);
+    }
+
+    // Next free reservation slots of a doctor (or of a dept when no doctor is given).
+    @GetMapping("/slots")
+    public ResponseEntity<ApiResponse<List<ReservationSlotRes>>> findFreeSlots(
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String deptCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false, defaultValue = "10") int count
+    ) {
+        return ResponseEntity.ok(new ApiResponse<List<ReservationSlotRes>>().ok(
+                reservationSlotEngine.findFreeSlots(doctorId, deptCode, from, count)));
+    }
+
+    @GetMapping("/beds")
+    public ResponseEntity<ApiResponse<List<WardBoardRes>>> findBedBoard(@RequestParam(required = false) String wardCode) {
+        return ResponseEntity.ok(new ApiResponse<List<WardBoardRes>>().ok(wardBedService.findBoard(wardCode)));
+    }
+
+    @GetMapping("/beds/lookup")
+    public ResponseEntity<ApiResponse<WardBedRes>> findBed(
+            @RequestParam String wardCode,
+            @RequestParam(required = false) String roomNo,
+            @RequestParam String bedNo
+    ) {
+        return ResponseEntity.ok(new ApiResponse<WardBedRes>().ok(wardBedService.findBed(wardCode, roomNo, bedNo)));
+    }
+
+    // "snapshot" event with the board, then "bed" events (OCCUPIED / RELEASED).
+    @GetMapping(value = "/beds/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBedBoard(@RequestParam(required = false) String wardCode) {
+        return wardBedService.subscribe(wardCode);
+    }
+
+    // ER patients waiting for treatment, most urgent first (triage level, arrival flags, aging by wait time).
+    @GetMapping("/emergency/worklist")
+    public ResponseEntity<ApiResponse<List<EmergencyWorklistItemRes>>> findEmergencyWorklist(
+            @RequestParam(required = false, defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(new ApiResponse<List<EmergencyWorklistItemRes>>().ok(emergencyWorklistService.findWorklist(limit)));
+    }
+
+    // "snapshot" event with the whole worklist, then "worklist" events (ADDED / UPDATED / REMOVED).
+    @GetMapping(value = "/emergency/worklist/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEmergencyWorklist() {
+        return emergencyWorklistService.subscribe();
+    }
+
+    // Counts for one day (default today) from the in-memory census; deptCode narrows to one dept.
+    @GetMapping("/census")
+    public ResponseEntity<ApiResponse<ReceptionCensusRes>> findCensus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String deptCode
+    ) {
+        return ResponseEntity.ok(new ApiResponse<ReceptionCensusRes>().ok(receptionCensusService.findCensus(date, deptCode)));
     }
 
     @PostMapping
@@ -42,14 +166,49 @@ public class ReceptionController {
         return ResponseEntity.ok(new ApiResponse<Void>().ok());
     }
 
+    // Visit, reservation, emergency, inpatient and the latest history rows in one response.
+    @GetMapping("/{visitId}/full")
+    public ResponseEntity<ApiResponse<VisitDetailRes>> findVisitDetail(
+            @PathVariable Long visitId,
+            @RequestParam(required = false, defaultValue = "20") int historySize
+    ) {
+        return ResponseEntity.ok(new ApiResponse<VisitDetailRes>().ok(receptionService.findVisitDetail(visitId, historySize)));
+    }
+
     @GetMapping("/{visitId}/history")
     public ResponseEntity<ApiResponse<List<VisitHistoryRes>>> findVisitHistory(@PathVariable Long visitId) {
         return ResponseEntity.ok(new ApiResponse<List<VisitHistoryRes>>().ok(receptionService.findVisitHistory(visitId)));
     }
 
     @GetMapping("/history")
-    public ResponseEntity<ApiResponse<List<VisitHistoryRes>>> findAllHistory() {
-        return ResponseEntity.ok(new ApiResponse<List<VisitHistoryRes>>().ok(receptionService.findAllVisitHistory()));
+    public ResponseEntity<ApiResponse<List<VisitHistoryRes>>> findAllHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Long visitId
+    ) {
+        VisitHistorySearchReq cond = toHistorySearchReq(fromDate, toDate, visitId);
+        return ResponseEntity.ok(new ApiResponse<List<VisitHistoryRes>>().ok(receptionService.findAllVisitHistory(cond)));
+    }
+
+    // Whole history as NDJSON (default) or CSV, streamed row by row from the database on an async thread
+    // with the export's own timeout (app.reception.history-export.timeout).
+    @GetMapping("/history/export")
+    public WebAsyncTask<Void> exportHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Long visitId,
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) {
+        VisitHistorySearchReq cond = toHistorySearchReq(fromDate, toDate, visitId);
+        VisitHistoryExporter.Format exportFormat = VisitHistoryExporter.Format.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"visit-history." + exportFormat.getExtension() + "\"");
+        return new WebAsyncTask<>(visitHistoryExporter.getTimeout().toMillis(), () -> {
+            visitHistoryExporter.export(cond, exportFormat, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 
     @GetMapping("/{visitId}/reservations")
@@ -108,4 +267,24 @@ public class ReceptionController {
         receptionService.deleteInpatient(visitId);
         return ResponseEntity.ok(new ApiResponse<Void>().ok());
     }
+
+    private VisitSearchReq toSearchReq(LocalDate fromDate, LocalDate toDate, String deptCode,
+                                       String doctorId, String status, String visitType) {
+        VisitSearchReq cond = new VisitSearchReq();
+        cond.setFromDate(fromDate);
+        cond.setToDate(toDate);
+        cond.setDeptCode(deptCode);
+        cond.setDoctorId(doctorId);
+        cond.setStatus(status);
+        cond.setVisitType(visitType);
+        return cond;
+    }
+
+    private VisitHistorySearchReq toHistorySearchReq(LocalDate fromDate, LocalDate toDate, Long visitId) {
+        VisitHistorySearchReq cond = new VisitHistorySearchReq();
+        cond.setFromDate(fromDate);
+        cond.setToDate(toDate);
+        cond.setVisitId(visitId);
+        return cond;
+    }
 }
@@ -0,0 +1,13 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+@Data
+public class EmergencyWorklistEventRes {
+    // ADDED, UPDATED or REMOVED
+    private String type;
+    private Long visitId;
+    // null for REMOVED
+    private EmergencyWorklistItemRes item;
+    private long version;
+}
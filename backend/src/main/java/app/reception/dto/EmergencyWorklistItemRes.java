@@ -0,0 +1,22 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EmergencyWorklistItemRes {
+    private Long visitId;
+    private String visitNo;
+    private Long patientId;
+    private String patientName;
+    private String status;
+    private String triageLevel;
+    // 1 (most urgent) .. 5, parsed from triageLevel.
+    private int acuity;
+    private Boolean ambulanceYn;
+    private Boolean traumaYn;
+    private LocalDateTime arrivedAt;
+    // Worklist order, lowest first; lets clients insert pushed items without re-deriving the rules.
+    private long priorityKey;
+}
@@ -0,0 +1,23 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ReceptionCensusRes {
+    private LocalDate date;
+    // null = all departments
+    private String deptCode;
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byVisitType;
+    private Map<String, Long> byDept;
+    // Arrivals per hour of day, index 0 = 00:00-00:59.
+    private List<Long> hourlyArrivals;
+    // createdAt to calledAt (or startedAt when never called); null when no visit was called yet.
+    private Double avgWaitMinutes;
+    private long waitSamples;
+}
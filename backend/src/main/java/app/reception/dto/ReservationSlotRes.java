@@ -0,0 +1,14 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReservationSlotRes {
+    private LocalDateTime slotStart;
+    private LocalDateTime slotEnd;
+    private int booked;
+    // 0 when the schedule has no limit.
+    private int capacity;
+}
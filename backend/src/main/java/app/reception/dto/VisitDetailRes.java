@@ -0,0 +1,15 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Everything the visit screen shows; sections the visit does not have are null.
+@Data
+public class VisitDetailRes {
+    private VisitRes visit;
+    private VisitReservationRes reservation;
+    private VisitEmergencyRes emergency;
+    private VisitInpatientRes inpatient;
+    private List<VisitHistoryRes> history;
+}
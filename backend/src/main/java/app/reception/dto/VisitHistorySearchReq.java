@@ -0,0 +1,12 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class VisitHistorySearchReq {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Long visitId;
+}
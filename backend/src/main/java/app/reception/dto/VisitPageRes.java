@@ -0,0 +1,16 @@
+package app.reception.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Keyset page: pass nextCursor back as cursor to read the next page; null when there is none.
+@Getter
+@AllArgsConstructor
+public class VisitPageRes {
+    private List<VisitRes> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class VisitSearchReq {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private String deptCode;
+    private String doctorId;
+    private String status;
+    private String visitType;
+}
@@ -0,0 +1,14 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+@Data
+public class WaitingQueueEventRes {
+    // ADDED, UPDATED or REMOVED
+    private String type;
+    private String deptCode;
+    private Long visitId;
+    // null for REMOVED
+    private WaitingQueueItemRes item;
+    private long version;
+}
@@ -0,0 +1,19 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class WaitingQueueItemRes {
+    private Long visitId;
+    private String visitNo;
+    private Long patientId;
+    private String patientName;
+    private String visitType;
+    private String deptCode;
+    private String doctorId;
+    private Boolean priorityYn;
+    private Integer queueNo;
+    private LocalDateTime createdAt;
+}
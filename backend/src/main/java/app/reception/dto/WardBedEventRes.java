@@ -0,0 +1,13 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+@Data
+public class WardBedEventRes {
+    // OCCUPIED or RELEASED
+    private String type;
+    private String wardCode;
+    private WardBedRes bed;
+    private int occupied;
+    private long version;
+}
@@ -0,0 +1,17 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One bed on the board; visitId is null when the bed is free.
+@Data
+public class WardBedRes {
+    private String wardCode;
+    private String roomNo;
+    private String bedNo;
+    private Long visitId;
+    private Long patientId;
+    private String patientName;
+    private LocalDateTime admissionAt;
+}
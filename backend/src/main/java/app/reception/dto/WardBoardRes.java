@@ -0,0 +1,16 @@
+package app.reception.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class WardBoardRes {
+    private String wardCode;
+    // Beds in app.reception.ward.beds; 0 when the ward layout is not configured.
+    private int totalBeds;
+    private int occupied;
+    // null when the ward layout is not configured.
+    private Integer available;
+    private List<WardBedRes> beds;
+}
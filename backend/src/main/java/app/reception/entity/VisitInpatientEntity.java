@@ -31,6 +31,10 @@ public class VisitInpatientEntity {
     @Column(name = "ADMISSION_AT")
     private LocalDateTime admissionAt;
 
+    // false once the visit is cancelled; only active stays hold their bed (UX_VISIT_INPATIENT_BED).
+    @Column(name = "ACTIVE_YN")
+    private Boolean activeYn;
+
     @Column(name = "NOTE", length = 1000)
     private String note;
 
@@ -2,6 +2,20 @@ package app.reception.repository;
 
 import app.reception.entity.VisitEmergencyEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface VisitEmergencyRepository extends JpaRepository<VisitEmergencyEntity, Long> {
+
+    // [emergency, visit] of emergency visits in one of the given statuses.
+    @Query(
+            "select e, v " +
+                    "from VisitEmergencyEntity e " +
+                    "join VisitEntity v on v.id = e.visitId " +
+                    "where v.status in :statuses"
+    )
+    List<Object[]> findByVisitStatusIn(@Param("statuses") Collection<String> statuses);
 }
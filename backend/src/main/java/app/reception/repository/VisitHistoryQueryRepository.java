@@ -0,0 +1,12 @@
+package app.reception.repository;
+
+import app.reception.dto.VisitHistorySearchReq;
+import app.reception.entity.VisitHistoryEntity;
+
+import java.util.List;
+
+public interface VisitHistoryQueryRepository {
+
+    // Newest first (CHANGED_AT DESC, ID DESC); null filters are ignored.
+    List<VisitHistoryEntity> searchHistory(VisitHistorySearchReq cond);
+}
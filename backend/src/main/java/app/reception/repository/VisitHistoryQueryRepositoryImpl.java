@@ -0,0 +1,44 @@
+package app.reception.repository;
+
+import app.reception.dto.VisitHistorySearchReq;
+import app.reception.entity.VisitHistoryEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+public class VisitHistoryQueryRepositoryImpl implements VisitHistoryQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VisitHistoryEntity> searchHistory(VisitHistorySearchReq cond) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VisitHistoryEntity> query = cb.createQuery(VisitHistoryEntity.class);
+        Root<VisitHistoryEntity> root = query.from(VisitHistoryEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (cond != null) {
+            if (cond.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("changedAt"), cond.getFromDate().atStartOfDay()));
+            }
+            if (cond.getToDate() != null) {
+                predicates.add(cb.lessThan(root.get("changedAt"), cond.getToDate().plusDays(1).atStartOfDay()));
+            }
+            if (cond.getVisitId() != null) {
+                predicates.add(cb.equal(root.get("visitId"), cond.getVisitId()));
+            }
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("changedAt")), cb.desc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -1,12 +1,13 @@
 package app.reception.repository;
 
 import app.reception.entity.VisitHistoryEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
-public interface VisitHistoryRepository extends JpaRepository<VisitHistoryEntity, Long> {
+public interface VisitHistoryRepository extends JpaRepository<VisitHistoryEntity, Long>, VisitHistoryQueryRepository {
     List<VisitHistoryEntity> findByVisitIdOrderByChangedAtDescIdDesc(Long visitId);
 
-    List<VisitHistoryEntity> findAllByOrderByChangedAtDescIdDesc();
+    List<VisitHistoryEntity> findByVisitIdOrderByChangedAtDescIdDesc(Long visitId, Pageable pageable);
 }
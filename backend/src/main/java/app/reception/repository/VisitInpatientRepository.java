@@ -2,6 +2,25 @@ package app.reception.repository;
 
 import app.reception.entity.VisitInpatientEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface VisitInpatientRepository extends JpaRepository<VisitInpatientEntity, Long> {
+
+    // [inpatient, patientId, patientName] of every assigned bed whose visit is not cancelled.
+    @Query(
+            "select i, v.patientId, v.patientName " +
+                    "from VisitInpatientEntity i " +
+                    "join VisitEntity v on v.id = i.visitId " +
+                    "where i.wardCode is not null and i.bedNo is not null " +
+                    "and (v.status is null or v.status <> 'CANCELLED')"
+    )
+    List<Object[]> findOccupiedBeds();
+
+    @Modifying
+    @Query("update VisitInpatientEntity i set i.activeYn = :active where i.visitId = :visitId")
+    int updateActiveYn(@Param("visitId") Long visitId, @Param("active") Boolean active);
 }
@@ -0,0 +1,13 @@
+package app.reception.repository;
+
+import app.reception.dto.VisitSearchReq;
+import app.reception.entity.VisitEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VisitQueryRepository {
+
+    // Newest first by (createdAt, id); rows strictly after the cursor when one is given.
+    List<VisitEntity> findVisitPage(VisitSearchReq cond, LocalDateTime cursorCreatedAt, Long cursorId, int limit);
+}
@@ -0,0 +1,69 @@
+package app.reception.repository;
+
+import app.reception.dto.VisitSearchReq;
+import app.reception.entity.VisitEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class VisitQueryRepositoryImpl implements VisitQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VisitEntity> findVisitPage(VisitSearchReq cond, LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VisitEntity> query = cb.createQuery(VisitEntity.class);
+        Root<VisitEntity> root = query.from(VisitEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (cond != null) {
+            if (cond.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), cond.getFromDate().atStartOfDay()));
+            }
+            if (cond.getToDate() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), cond.getToDate().plusDays(1).atStartOfDay()));
+            }
+            if (hasText(cond.getDeptCode())) {
+                predicates.add(cb.equal(root.get("deptCode"), cond.getDeptCode().trim()));
+            }
+            if (hasText(cond.getDoctorId())) {
+                predicates.add(cb.equal(root.get("doctorId"), cond.getDoctorId().trim()));
+            }
+            if (hasText(cond.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), cond.getStatus().trim().toUpperCase()));
+            }
+            if (hasText(cond.getVisitType())) {
+                predicates.add(cb.equal(root.get("visitType"), cond.getVisitType().trim().toUpperCase()));
+            }
+        }
+        if (cursorCreatedAt != null && cursorId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("createdAt"), cursorCreatedAt),
+                    cb.and(
+                            cb.equal(root.get("createdAt"), cursorCreatedAt),
+                            cb.lessThan(root.get("id"), cursorId)
+                    )
+            ));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
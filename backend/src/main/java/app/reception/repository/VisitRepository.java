@@ -2,9 +2,27 @@ package app.reception.repository;
 
 import app.reception.entity.VisitEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface VisitRepository extends JpaRepository<VisitEntity, Long> {
+public interface VisitRepository extends JpaRepository<VisitEntity, Long>, VisitQueryRepository {
     List<VisitEntity> findAllByOrderByCreatedAtDesc();
+
+    List<VisitEntity> findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(String status, LocalDateTime createdAt);
+
+    List<VisitEntity> findByCreatedAtGreaterThanEqual(LocalDateTime createdAt);
+
+    // [visit, reservation, emergency, inpatient]; the detail rows are null when missing.
+    @Query(
+            "select v, r, e, i " +
+                    "from VisitEntity v " +
+                    "left join VisitReservationEntity r on r.visitId = v.id " +
+                    "left join VisitEmergencyEntity e on e.visitId = v.id " +
+                    "left join VisitInpatientEntity i on i.visitId = v.id " +
+                    "where v.id = :visitId"
+    )
+    List<Object[]> findVisitDetail(@Param("visitId") Long visitId);
 }
@@ -2,10 +2,23 @@ package app.reception.repository;
 
 import app.reception.entity.VisitReservationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 public interface VisitReservationRepository extends JpaRepository<VisitReservationEntity, Long> {
     List<VisitReservationEntity> findByVisitIdIn(Collection<Long> visitIds);
+
+    // [visitId, scheduledAt, doctorId, deptCode] of live reservations from the given time on.
+    @Query(
+            "select r.visitId, r.scheduledAt, v.doctorId, v.deptCode " +
+                    "from VisitReservationEntity r " +
+                    "join VisitEntity v on v.id = r.visitId " +
+                    "where r.scheduledAt >= :from " +
+                    "and (v.status is null or v.status <> 'CANCELLED')"
+    )
+    List<Object[]> findBookedSlots(@Param("from") LocalDateTime from);
 }
@@ -0,0 +1,15 @@
+package app.reception.service;
+
+// Published by ReceptionService when a visit's emergency (triage) record is saved or deleted.
+public class EmergencyChangedEvent {
+
+    private final Long visitId;
+
+    public EmergencyChangedEvent(Long visitId) {
+        this.visitId = visitId;
+    }
+
+    public Long getVisitId() {
+        return visitId;
+    }
+}
@@ -0,0 +1,211 @@
+package app.reception.service;
+
+import app.reception.dto.EmergencyWorklistEventRes;
+import app.reception.dto.EmergencyWorklistItemRes;
+import app.reception.entity.VisitEmergencyEntity;
+import app.reception.entity.VisitEntity;
+import app.reception.repository.VisitEmergencyRepository;
+import app.reception.repository.VisitRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ER worklist: emergency visits that are WAITING or CALLED, most urgent first.
+ *
+ * Order is by priorityKey = arrival (epoch seconds) + (acuity - 1) * agingSeconds, minus half an aging step
+ * each for ambulance and trauma arrivals. Comparing keys is the same as comparing "acuity minus time waited",
+ * because every item has waited from its own arrival up to the same now; so a patient moves up one acuity
+ * level per agingMinutes of waiting without the key ever changing, and a skip list keeps the order.
+ * Acuity 1 (resuscitation) is always ahead of everyone else.
+ *
+ * Kept current from saveEmergency / visit changes on this node and Redis pub/sub for other nodes; subscribers
+ * get a snapshot and then ADDED / UPDATED / REMOVED events over SSE.
+ */
+@Slf4j
+@Service
+public class EmergencyWorklistService {
+
+    private static final Set<String> ACTIVE_STATUSES = Set.of("WAITING", "CALLED");
+    private static final String EMERGENCY = "EMERGENCY";
+    // Untriaged patients sit in the middle until a level is recorded.
+    private static final int UNTRIAGED_ACUITY = 3;
+    private static final long RESUSCITATION_LEAD_SECONDS = TimeUnit.DAYS.toSeconds(3650);
+
+    private static final Comparator<EmergencyWorklistItemRes> ORDER = Comparator
+            .comparingLong(EmergencyWorklistItemRes::getPriorityKey)
+            .thenComparing(EmergencyWorklistItemRes::getVisitId);
+
+    private final VisitRepository visitRepository;
+    private final VisitEmergencyRepository visitEmergencyRepository;
+    // Every subscriber sees the whole worklist, so there is nothing to filter on.
+    private final ReceptionLiveUpdates<Void> liveUpdates;
+
+    @Value("${app.reception.er.channel:reception:er}")
+    private String channel;
+
+    // Waiting time that counts as one acuity level.
+    @Value("${app.reception.er.aging-minutes:30}")
+    private long agingMinutes;
+
+    // Writes are serialized on this; readers only touch the skip list.
+    private final Map<Long, EmergencyWorklistItemRes> byVisit = new HashMap<>();
+    private final ConcurrentSkipListSet<EmergencyWorklistItemRes> worklist = new ConcurrentSkipListSet<>(ORDER);
+    private final AtomicLong version = new AtomicLong();
+
+    public EmergencyWorklistService(VisitRepository visitRepository,
+                                    VisitEmergencyRepository visitEmergencyRepository,
+                                    StringRedisTemplate redisTemplate,
+                                    RedisMessageListenerContainer listenerContainer) {
+        this.visitRepository = visitRepository;
+        this.visitEmergencyRepository = visitEmergencyRepository;
+        this.liveUpdates = new ReceptionLiveUpdates<>("ER", "worklist", redisTemplate, listenerContainer, this::onRemoteChange);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        liveUpdates.listen(channel);
+        List<Object[]> rows = visitEmergencyRepository.findByVisitStatusIn(ACTIVE_STATUSES);
+        synchronized (this) {
+            for (Object[] row : rows) {
+                VisitEntity visit = (VisitEntity) row[1];
+                apply(visit.getId(), toItem(visit, (VisitEmergencyEntity) row[0]));
+            }
+        }
+        log.info("[ER] loaded {} worklist entries", rows.size());
+    }
+
+    public List<EmergencyWorklistItemRes> findWorklist(int limit) {
+        int max = Math.max(limit, 1);
+        List<EmergencyWorklistItemRes> items = new ArrayList<>(Math.min(max, worklist.size()));
+        for (EmergencyWorklistItemRes item : worklist) {
+            if (items.size() >= max) break;
+            items.add(item);
+        }
+        return items;
+    }
+
+    public synchronized SseEmitter subscribe() {
+        return liveUpdates.subscribe(null, new ArrayList<>(worklist), version.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmergencyChanged(EmergencyChangedEvent event) {
+        VisitEntity visit = visitRepository.findById(event.getVisitId()).orElse(null);
+        refresh(event.getVisitId(), visit);
+        liveUpdates.publish(event.getVisitId());
+    }
+
+    // Status changes (called, started, cancelled) move visits in and out of the worklist.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        VisitEntity visit = event.getSnapshot();
+        boolean listed;
+        synchronized (this) {
+            listed = byVisit.containsKey(event.getVisitId());
+        }
+        if (!listed && !EMERGENCY.equals(visit.getVisitType())) {
+            return;
+        }
+        refresh(event.getVisitId(), visit);
+        liveUpdates.publish(event.getVisitId());
+    }
+
+    // The worklist changed on another node: reload the visit and apply.
+    private void onRemoteChange(Long visitId) {
+        refresh(visitId, visitRepository.findById(visitId).orElse(null));
+    }
+
+    private void refresh(Long visitId, VisitEntity visit) {
+        EmergencyWorklistItemRes item = null;
+        if (visit != null && ACTIVE_STATUSES.contains(visit.getStatus())) {
+            VisitEmergencyEntity emergency = visitEmergencyRepository.findById(visitId).orElse(null);
+            if (emergency != null) {
+                item = toItem(visit, emergency);
+            }
+        }
+        synchronized (this) {
+            apply(visitId, item);
+        }
+    }
+
+    // Caller holds the lock. current is null when the visit is not (or no longer) on the worklist.
+    private void apply(Long visitId, EmergencyWorklistItemRes current) {
+        EmergencyWorklistItemRes previous = current == null ? byVisit.remove(visitId) : byVisit.put(visitId, current);
+        if (previous != null) {
+            worklist.remove(previous);
+        }
+        if (current != null) {
+            worklist.add(current);
+        }
+        if (previous == null && current == null || Objects.equals(previous, current)) {
+            return;
+        }
+
+        EmergencyWorklistEventRes event = new EmergencyWorklistEventRes();
+        event.setType(previous == null ? "ADDED" : (current == null ? "REMOVED" : "UPDATED"));
+        event.setVisitId(visitId);
+        event.setItem(current);
+        event.setVersion(version.incrementAndGet());
+        liveUpdates.push(event.getVersion(), filter -> event);
+    }
+
+    private EmergencyWorklistItemRes toItem(VisitEntity visit, VisitEmergencyEntity emergency) {
+        EmergencyWorklistItemRes item = new EmergencyWorklistItemRes();
+        item.setVisitId(visit.getId());
+        item.setVisitNo(visit.getVisitNo());
+        item.setPatientId(visit.getPatientId());
+        item.setPatientName(visit.getPatientName());
+        item.setStatus(visit.getStatus());
+        item.setTriageLevel(emergency.getTriageLevel());
+        item.setAcuity(acuityOf(emergency.getTriageLevel()));
+        item.setAmbulanceYn(emergency.getAmbulanceYn());
+        item.setTraumaYn(emergency.getTraumaYn());
+        item.setArrivedAt(visit.getCreatedAt() != null ? visit.getCreatedAt() : LocalDateTime.now());
+        item.setPriorityKey(priorityKey(item));
+        return item;
+    }
+
+    private long priorityKey(EmergencyWorklistItemRes item) {
+        long arrival = item.getArrivedAt().toEpochSecond(ZoneOffset.UTC);
+        if (item.getAcuity() == 1) {
+            return arrival - RESUSCITATION_LEAD_SECONDS;
+        }
+        long agingSeconds = Math.max(agingMinutes, 1) * 60;
+        long key = arrival + (item.getAcuity() - 1) * agingSeconds;
+        if (Boolean.TRUE.equals(item.getAmbulanceYn())) key -= agingSeconds / 2;
+        if (Boolean.TRUE.equals(item.getTraumaYn())) key -= agingSeconds / 2;
+        return key;
+    }
+
+    // First digit 1-5 of the recorded level ("2", "KTAS 2", "Level 2"); anything else counts as untriaged.
+    private int acuityOf(String triageLevel) {
+        if (triageLevel != null) {
+            for (int i = 0; i < triageLevel.length(); i++) {
+                char c = triageLevel.charAt(i);
+                if (c >= '1' && c <= '5') return c - '0';
+                if (c >= '0' && c <= '9') break;
+            }
+        }
+        return UNTRIAGED_ACUITY;
+    }
+}
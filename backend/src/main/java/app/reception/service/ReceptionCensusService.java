@@ -0,0 +1,285 @@
+package app.reception.service;
+
+import app.reception.dto.ReceptionCensusRes;
+import app.reception.entity.VisitEntity;
+import app.reception.repository.VisitRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reception census per day x dept: visit counts by visit type and status, arrivals per hour and the wait
+ * from arrival to call. Each visit's last contribution is remembered, so a change subtracts the old one
+ * and adds the new one; reads only walk the handful of depts and counters of a day, never VISIT_REG.
+ *
+ * Covers the last retentionDays days by createdAt. Rebuilt from VISIT_REG on startup and on demand (the
+ * ops endpoint); kept current from VisitChangedEvent on this node and Redis pub/sub for changes made on other
+ * nodes. A rebuild fills new maps and swaps them in, so readers see either the old census or the new one.
+ */
+@Slf4j
+@Service
+public class ReceptionCensusService {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final VisitRepository visitRepository;
+    // Only the cross-node notification is used; the census has no stream.
+    private final ReceptionLiveUpdates<Void> liveUpdates;
+
+    @Value("${app.reception.census.channel:reception:census}")
+    private String channel;
+
+    @Value("${app.reception.census.retention-days:7}")
+    private int retentionDays;
+
+    // Writes are serialized on this; readers only touch the concurrent maps and atomics. Replaced whole by rebuild.
+    private volatile ConcurrentHashMap<LocalDate, ConcurrentHashMap<String, DeptCensus>> days = new ConcurrentHashMap<>();
+    private Map<Long, Contribution> byVisit = new HashMap<>();
+    // Visits changed while a rebuild was reading VISIT_REG; re-read once the rebuild is in place.
+    private Set<Long> changedDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    public ReceptionCensusService(VisitRepository visitRepository,
+                                  StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer) {
+        this.visitRepository = visitRepository;
+        this.liveUpdates = new ReceptionLiveUpdates<>("CENSUS", "census", redisTemplate, listenerContainer, this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        liveUpdates.listen(channel);
+        rebuild();
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            LocalDate first = firstDay();
+            List<VisitEntity> visits = visitRepository.findByCreatedAtGreaterThanEqual(first.atStartOfDay());
+            // Built off to the side; readers keep the current census until the swap.
+            ConcurrentHashMap<LocalDate, ConcurrentHashMap<String, DeptCensus>> rebuiltDays = new ConcurrentHashMap<>();
+            Map<Long, Contribution> rebuiltByVisit = new HashMap<>();
+            for (VisitEntity visit : visits) {
+                Contribution contribution = contributionOf(visit);
+                if (contribution == null || contribution.day.isBefore(first)) continue;
+                rebuiltByVisit.put(visit.getId(), contribution);
+                add(rebuiltDays, contribution, 1);
+            }
+            Set<Long> changed;
+            synchronized (this) {
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+                days = rebuiltDays;
+                byVisit = rebuiltByVisit;
+            }
+            for (Long visitId : changed) {
+                reload(visitId);
+            }
+            log.info("[CENSUS] rebuilt from {} visits", visits.size());
+        }
+    }
+
+    public ReceptionCensusRes findCensus(LocalDate date, String deptCode) {
+        LocalDate day = date == null ? LocalDate.now() : date;
+        String dept = deptCode == null || deptCode.trim().isEmpty() ? null : deptCode.trim();
+        Map<String, DeptCensus> depts = days.getOrDefault(day, new ConcurrentHashMap<>());
+
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byVisitType = new TreeMap<>();
+        Map<String, Long> byDept = new TreeMap<>();
+        long[] hourly = new long[24];
+        long total = 0;
+        long waitSeconds = 0;
+        long waitSamples = 0;
+        for (Map.Entry<String, DeptCensus> entry : depts.entrySet()) {
+            if (dept != null && !dept.equals(entry.getKey())) continue;
+            DeptCensus census = entry.getValue();
+            long deptTotal = 0;
+            for (Map.Entry<String, AtomicLong> count : census.counts.entrySet()) {
+                long value = count.getValue().get();
+                if (value == 0) continue;
+                String[] typeStatus = count.getKey().split("\\|", 2);
+                byVisitType.merge(typeStatus[0], value, Long::sum);
+                byStatus.merge(typeStatus[1], value, Long::sum);
+                deptTotal += value;
+            }
+            if (deptTotal > 0) byDept.put(entry.getKey(), deptTotal);
+            total += deptTotal;
+            for (int hour = 0; hour < 24; hour++) {
+                hourly[hour] += census.hourly.get(hour);
+            }
+            waitSeconds += census.waitSeconds.get();
+            waitSamples += census.waitSamples.get();
+        }
+
+        ReceptionCensusRes dto = new ReceptionCensusRes();
+        dto.setDate(day);
+        dto.setDeptCode(dept);
+        dto.setTotal(total);
+        dto.setByStatus(byStatus);
+        dto.setByVisitType(byVisitType);
+        dto.setByDept(byDept);
+        List<Long> hourlyArrivals = new ArrayList<>(24);
+        for (long count : hourly) {
+            hourlyArrivals.add(count);
+        }
+        dto.setHourlyArrivals(hourlyArrivals);
+        dto.setAvgWaitMinutes(waitSamples == 0 ? null : Math.round(waitSeconds * 10.0 / waitSamples / 60.0) / 10.0);
+        dto.setWaitSamples(waitSamples);
+        return dto;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        synchronized (this) {
+            apply(event.getVisitId(), contributionOf(event.getSnapshot()));
+        }
+        liveUpdates.publish(event.getVisitId());
+    }
+
+    // Also applies visits changed on other nodes.
+    private void reload(Long visitId) {
+        VisitEntity visit = visitRepository.findById(visitId).orElse(null);
+        synchronized (this) {
+            apply(visitId, visit == null ? null : contributionOf(visit));
+        }
+    }
+
+    // Caller holds the lock. current is null when the visit no longer counts (deleted or too old).
+    private void apply(Long visitId, Contribution current) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(visitId);
+        }
+        dropExpiredDays();
+        if (current != null && current.day.isBefore(firstDay())) {
+            current = null;
+        }
+        Contribution previous = current == null ? byVisit.remove(visitId) : byVisit.put(visitId, current);
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (previous != null) {
+            add(days, previous, -1);
+        }
+        if (current != null) {
+            add(days, current, 1);
+        }
+    }
+
+    private static void add(ConcurrentHashMap<LocalDate, ConcurrentHashMap<String, DeptCensus>> days,
+                            Contribution contribution, int sign) {
+        ConcurrentHashMap<String, DeptCensus> depts = days.get(contribution.day);
+        if (depts == null) {
+            if (sign < 0) return;
+            depts = days.computeIfAbsent(contribution.day, k -> new ConcurrentHashMap<>());
+        }
+        DeptCensus census = depts.computeIfAbsent(contribution.deptCode, k -> new DeptCensus());
+        census.counts.computeIfAbsent(contribution.visitType + "|" + contribution.status, k -> new AtomicLong())
+                .addAndGet(sign);
+        census.hourly.addAndGet(contribution.hour, sign);
+        if (contribution.waitSeconds >= 0) {
+            census.waitSeconds.addAndGet(sign * contribution.waitSeconds);
+            census.waitSamples.addAndGet(sign);
+        }
+    }
+
+    private void dropExpiredDays() {
+        LocalDate first = firstDay();
+        if (days.keySet().stream().noneMatch(day -> day.isBefore(first))) {
+            return;
+        }
+        days.keySet().removeIf(day -> day.isBefore(first));
+        byVisit.values().removeIf(contribution -> contribution.day.isBefore(first));
+    }
+
+    private LocalDate firstDay() {
+        return LocalDate.now().minusDays(Math.max(retentionDays, 1) - 1L);
+    }
+
+    private Contribution contributionOf(VisitEntity visit) {
+        LocalDateTime createdAt = visit.getCreatedAt();
+        if (createdAt == null) {
+            return null;
+        }
+        LocalDateTime calledAt = visit.getCalledAt() != null ? visit.getCalledAt() : visit.getStartedAt();
+        long waitSeconds = calledAt == null ? -1 : Duration.between(createdAt, calledAt).getSeconds();
+        return new Contribution(
+                createdAt.toLocalDate(),
+                textOr(visit.getDeptCode()),
+                textOr(visit.getVisitType()),
+                textOr(visit.getStatus()),
+                createdAt.getHour(),
+                waitSeconds < 0 ? -1 : waitSeconds
+        );
+    }
+
+    private String textOr(String value) {
+        return value == null || value.trim().isEmpty() ? UNKNOWN : value.trim();
+    }
+
+    private static final class DeptCensus {
+        private final ConcurrentHashMap<String, AtomicLong> counts = new ConcurrentHashMap<>();
+        private final AtomicLongArray hourly = new AtomicLongArray(24);
+        private final AtomicLong waitSeconds = new AtomicLong();
+        private final AtomicLong waitSamples = new AtomicLong();
+    }
+
+    private static final class Contribution {
+        private final LocalDate day;
+        private final String deptCode;
+        private final String visitType;
+        private final String status;
+        private final int hour;
+        private final long waitSeconds;
+
+        private Contribution(LocalDate day, String deptCode, String visitType, String status, int hour, long waitSeconds) {
+            this.day = day;
+            this.deptCode = deptCode;
+            this.visitType = visitType;
+            this.status = status;
+            this.hour = hour;
+            this.waitSeconds = waitSeconds;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Contribution)) return false;
+            Contribution other = (Contribution) o;
+            return hour == other.hour
+                    && waitSeconds == other.waitSeconds
+                    && day.equals(other.day)
+                    && deptCode.equals(other.deptCode)
+                    && visitType.equals(other.visitType)
+                    && status.equals(other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, deptCode, visitType, status, hour, waitSeconds);
+        }
+    }
+}
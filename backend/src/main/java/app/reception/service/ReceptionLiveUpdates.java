@@ -0,0 +1,204 @@
+package app.reception.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Live-update plumbing of the reception in-memory views: SSE fan-out to this node's subscribers and a
+ * Redis notification ("nodeId|visitId") so the other nodes reload the changed visit.
+ *
+ * Every subscriber has its own bounded queue, drained on the push pool by at most one task at a time, so a
+ * client that stops reading only holds up itself. Once maxPending events are waiting for it, that client
+ * is disconnected and reconnects for a fresh snapshot. The snapshot goes through the same queue and is
+ * always the first event a subscriber gets.
+ *
+ * @param <F> what a subscriber asked for (dept, ward, ...), handed back when building its events
+ */
+@Slf4j
+final class ReceptionLiveUpdates<F> implements MessageListener {
+
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final int PUSH_THREADS = 4;
+    private static final int MAX_PENDING = 1_000;
+
+    private final String name;
+    private final String eventName;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Consumer<Long> remoteChange;
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile String channel;
+
+    private final List<Subscriber<F>> subscribers = new CopyOnWriteArrayList<>();
+    // Pushes run off the request thread so a slow client cannot hold up a reception write.
+    private final ThreadPoolExecutor pushExecutor;
+
+    /**
+     * @param name         log tag, e.g. QUEUE
+     * @param eventName    SSE event name of the updates
+     * @param remoteChange reloads and applies a visit changed on another node
+     */
+    ReceptionLiveUpdates(String name,
+                         String eventName,
+                         StringRedisTemplate redisTemplate,
+                         RedisMessageListenerContainer listenerContainer,
+                         Consumer<Long> remoteChange) {
+        this.name = name;
+        this.eventName = eventName;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.remoteChange = remoteChange;
+        AtomicLong threads = new AtomicLong();
+        String threadPrefix = name.toLowerCase() + "-push-";
+        this.pushExecutor = new ThreadPoolExecutor(PUSH_THREADS, PUSH_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.pushExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    void listen(String channel) {
+        this.channel = channel;
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Registers a subscriber whose first event is the snapshot. Call it under the same lock the view pushes
+     * under, so no update is queued ahead of the snapshot or missing from it.
+     */
+    SseEmitter subscribe(F filter, Object snapshot, long snapshotVersion) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber<F> subscriber = new Subscriber<>(emitter, filter);
+        emitter.onCompletion(() -> drop(subscriber));
+        emitter.onTimeout(() -> drop(subscriber));
+        emitter.onError(ex -> drop(subscriber));
+        enqueue(subscriber, SseEmitter.event()
+                .name("snapshot")
+                .id(String.valueOf(snapshotVersion))
+                .data(snapshot));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // Queues the event eventFor builds for each subscriber; a null event skips that subscriber.
+    void push(long eventVersion, Function<F, Object> eventFor) {
+        for (Subscriber<F> subscriber : subscribers) {
+            Object event = eventFor.apply(subscriber.filter);
+            if (event == null) continue;
+            enqueue(subscriber, SseEmitter.event()
+                    .name(eventName)
+                    .id(String.valueOf(eventVersion))
+                    .data(event));
+        }
+    }
+
+    // Tells the other nodes to reload the visit.
+    void publish(Long visitId) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + visitId);
+        } catch (DataAccessException ex) {
+            log.warn("[{}] change publish failed: visitId={} error={}", name, visitId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        try {
+            remoteChange.accept(Long.valueOf(body.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            log.warn("[{}] remote change failed: message={} error={}", name, body, ex.getMessage());
+        }
+    }
+
+    private void enqueue(Subscriber<F> subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (subscriber.pending.incrementAndGet() > MAX_PENDING) {
+            // Too far behind to patch its view; the client reconnects for a fresh snapshot.
+            log.info("[{}] subscriber dropped after {} pending events", name, MAX_PENDING);
+            drop(subscriber);
+        } else {
+            subscriber.queue.add(event);
+        }
+        schedule(subscriber);
+    }
+
+    private void drop(Subscriber<F> subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber<F> subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            pushExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Only one drain per subscriber runs at a time, so its events go out in order.
+    private void drain(Subscriber<F> subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.pending.decrementAndGet();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    subscriber.closed = true;
+                    subscribers.remove(subscriber);
+                }
+            }
+            if (subscriber.closed) {
+                // Completed here rather than by the caller of drop, which could block behind a stuck send.
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.draining.set(false);
+        } while ((subscriber.closed || !subscriber.queue.isEmpty()) && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private static final class Subscriber<F> {
+        private final SseEmitter emitter;
+        private final F filter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, F filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package app.reception.service;
 
+import app.common.history.HistoryJournal;
+import app.common.history.HistoryRecord;
+import app.common.history.HistoryTable;
 import app.reception.dto.*;
 import app.reception.entity.*;
 import app.reception.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -17,35 +25,81 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReceptionService {
 
+    private static final HistoryTable HISTORY_TABLE =
+            HistoryTable.of("CMH.VISIT_HISTORY", "VISIT_ID", "CMH.VISIT_HISTORY_SEQ");
+
     private final VisitRepository visitRepository;
     private final VisitHistoryRepository visitHistoryRepository;
     private final VisitReservationRepository visitReservationRepository;
     private final VisitEmergencyRepository visitEmergencyRepository;
     private final VisitInpatientRepository visitInpatientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VisitNumberAllocator visitNumberAllocator;
+    private final HistoryJournal historyJournal;
+    private final ReservationSlotEngine reservationSlotEngine;
+    private final WardBedService wardBedService;
+
+    // true (default): GET /api/visits returns every visit ever created (old behaviour, ignores filters).
+    // The reception and display screens still filter that full list on the client; switch to false once
+    // they page through /api/visits/page.
+    @Value("${app.reception.visit-list.legacy:true}")
+    private boolean visitListLegacy;
+
+    // Rows returned by GET /api/visits when not in legacy mode.
+    @Value("${app.reception.visit-list.limit:500}")
+    private int visitListLimit;
 
     public ReceptionService(
             VisitRepository visitRepository,
             VisitHistoryRepository visitHistoryRepository,
             VisitReservationRepository visitReservationRepository,
             VisitEmergencyRepository visitEmergencyRepository,
-            VisitInpatientRepository visitInpatientRepository
+            VisitInpatientRepository visitInpatientRepository,
+            ApplicationEventPublisher eventPublisher,
+            VisitNumberAllocator visitNumberAllocator,
+            HistoryJournal historyJournal,
+            ReservationSlotEngine reservationSlotEngine,
+            WardBedService wardBedService
     ) {
         this.visitRepository = visitRepository;
         this.visitHistoryRepository = visitHistoryRepository;
         this.visitReservationRepository = visitReservationRepository;
         this.visitEmergencyRepository = visitEmergencyRepository;
         this.visitInpatientRepository = visitInpatientRepository;
+        this.eventPublisher = eventPublisher;
+        this.visitNumberAllocator = visitNumberAllocator;
+        this.historyJournal = historyJournal;
+        this.reservationSlotEngine = reservationSlotEngine;
+        this.wardBedService = wardBedService;
     }
 
     @Transactional(readOnly = true)
-    public List<VisitRes> findVisits() {
-        List<VisitEntity> visits = visitRepository.findAllByOrderByCreatedAtDesc();
-        Map<Long, VisitReservationEntity> reservationMap = visitReservationRepository
-                .findByVisitIdIn(visits.stream().map(VisitEntity::getId).collect(Collectors.toList()))
-                .stream()
-                .collect(Collectors.toMap(VisitReservationEntity::getVisitId, x -> x));
+    public List<VisitRes> findVisits(VisitSearchReq cond) {
+        if (visitListLegacy) {
+            return toVisitResList(visitRepository.findAllByOrderByCreatedAtDesc());
+        }
+        return toVisitResList(visitRepository.findVisitPage(cond, null, null, Math.max(visitListLimit, 1)));
+    }
 
-        return visits.stream().map(v -> toVisitRes(v, reservationMap.get(v.getId()))).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VisitPageRes findVisitPage(VisitSearchReq cond, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), 200);
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.trim().isEmpty()) {
+            String[] parts = decodeCursor(cursor.trim());
+            cursorCreatedAt = LocalDateTime.parse(parts[0]);
+            cursorId = Long.valueOf(parts[1]);
+        }
+
+        // One extra row tells whether another page exists without a count query.
+        List<VisitEntity> visits = visitRepository.findVisitPage(cond, cursorCreatedAt, cursorId, pageSize + 1);
+        boolean hasNext = visits.size() > pageSize;
+        if (hasNext) {
+            visits = visits.subList(0, pageSize);
+        }
+        String nextCursor = hasNext ? encodeCursor(visits.get(visits.size() - 1)) : null;
+        return new VisitPageRes(toVisitResList(visits), pageSize, hasNext, nextCursor);
     }
 
     public VisitRes createVisit(VisitCreateReq req) {
@@ -60,18 +114,21 @@ public class ReceptionService {
         }
 
         LocalDateTime now = LocalDateTime.now();
+        String deptCode = req.getDeptCode().trim();
+        String visitNo = blankToNull(req.getVisitNo());
         VisitEntity entity = new VisitEntity();
-        entity.setVisitNo(blankToNull(req.getVisitNo()));
+        entity.setVisitNo(visitNo != null ? visitNo : visitNumberAllocator.nextVisitNo(now.toLocalDate()));
         entity.setPatientId(req.getPatientId());
         entity.setPatientNo(blankToNull(req.getPatientNo()));
         entity.setPatientName(blankToNull(req.getPatientName()));
         entity.setPatientPhone(blankToNull(req.getPatientPhone()));
         entity.setVisitType(req.getVisitType().trim());
         entity.setStatus("WAITING");
-        entity.setDeptCode(req.getDeptCode().trim());
+        entity.setDeptCode(deptCode);
         entity.setDoctorId(blankToNull(req.getDoctorId()));
         entity.setPriorityYn(Boolean.TRUE.equals(req.getPriorityYn()));
-        entity.setQueueNo(req.getQueueNo());
+        // Issued by the server; a client supplied queueNo is ignored (it was the source of duplicates).
+        entity.setQueueNo(visitNumberAllocator.nextQueueNo(deptCode, now.toLocalDate()));
         entity.setMemo(blankToNull(req.getMemo()));
         entity.setCreatedBy(defaultText(req.getCreatedBy(), "system"));
         entity.setUpdatedBy(defaultText(req.getCreatedBy(), "system"));
@@ -79,10 +136,6 @@ public class ReceptionService {
         entity.setUpdatedAt(now);
 
         VisitEntity saved = visitRepository.save(entity);
-        if (saved.getVisitNo() == null) {
-            saved.setVisitNo(generateVisitNo(saved.getId()));
-            saved = visitRepository.save(saved);
-        }
 
         if (req.getReservationId() != null || req.getScheduledAt() != null || req.getArrivalAt() != null || req.getReservationNote() != null) {
             VisitReservationReq reservationReq = new VisitReservationReq();
@@ -94,6 +147,7 @@ public class ReceptionService {
         }
 
         addHistory(saved.getId(), "CREATE", null, null, saved.getStatus(), "created", saved.getCreatedBy());
+        eventPublisher.publishEvent(new VisitChangedEvent(saved));
         VisitReservationEntity reservation = visitReservationRepository.findById(saved.getId()).orElse(null);
         return toVisitRes(saved, reservation);
     }
@@ -107,7 +161,8 @@ public class ReceptionService {
         int changedCount = 0;
 
         changedCount += applyChange(visitId, "UPDATE", "visitType", entity.getVisitType(), req.getVisitType(), entity::setVisitType, changedBy);
-        changedCount += applyChange(visitId, "STATUS", "status", entity.getStatus(), req.getStatus(), entity::setStatus, changedBy);
+        int statusChanged = applyChange(visitId, "STATUS", "status", entity.getStatus(), req.getStatus(), entity::setStatus, changedBy);
+        changedCount += statusChanged;
         changedCount += applyChange(visitId, "UPDATE", "deptCode", entity.getDeptCode(), req.getDeptCode(), entity::setDeptCode, changedBy);
         changedCount += applyChange(visitId, "UPDATE", "doctorId", entity.getDoctorId(), req.getDoctorId(), entity::setDoctorId, changedBy);
         changedCount += applyChange(visitId, "UPDATE", "priorityYn", entity.getPriorityYn(), req.getPriorityYn(), entity::setPriorityYn, changedBy);
@@ -123,6 +178,9 @@ public class ReceptionService {
         entity.setUpdatedBy(changedBy);
         entity.setUpdatedAt(now);
         VisitEntity saved = visitRepository.save(entity);
+        if (statusChanged > 0) {
+            syncInpatientActive(saved);
+        }
 
         if (req.getReservationId() != null || req.getScheduledAt() != null || req.getArrivalAt() != null || req.getReservationNote() != null) {
             VisitReservationReq reservationReq = new VisitReservationReq();
@@ -135,6 +193,8 @@ public class ReceptionService {
 
         if (changedCount == 0) {
             addHistory(visitId, "UPDATE", null, null, null, "updated", changedBy);
+        } else {
+            eventPublisher.publishEvent(new VisitChangedEvent(saved));
         }
 
         VisitReservationEntity reservation = visitReservationRepository.findById(saved.getId()).orElse(null);
@@ -149,8 +209,35 @@ public class ReceptionService {
         entity.setCancelledAt(LocalDateTime.now());
         entity.setCancelReasonCode("DELETED");
         entity.setUpdatedAt(LocalDateTime.now());
-        visitRepository.save(entity);
+        VisitEntity saved = visitRepository.save(entity);
+        syncInpatientActive(saved);
         addHistory(visitId, "DELETE", "status", null, "CANCELLED", "deleted", "system");
+        eventPublisher.publishEvent(new VisitChangedEvent(saved));
+    }
+
+    // Visit screen in one call: the visit and its 1:1 sections in one joined query, then the latest history rows.
+    @Transactional(readOnly = true)
+    public VisitDetailRes findVisitDetail(Long visitId, int historySize) {
+        List<Object[]> rows = visitRepository.findVisitDetail(visitId);
+        if (rows.isEmpty()) {
+            throw new NoSuchElementException("visit not found");
+        }
+        Object[] row = rows.get(0);
+        VisitReservationEntity reservation = (VisitReservationEntity) row[1];
+        VisitEmergencyEntity emergency = (VisitEmergencyEntity) row[2];
+        VisitInpatientEntity inpatient = (VisitInpatientEntity) row[3];
+
+        VisitDetailRes dto = new VisitDetailRes();
+        dto.setVisit(toVisitRes((VisitEntity) row[0], reservation));
+        dto.setReservation(reservation == null ? null : toReservationRes(reservation));
+        dto.setEmergency(emergency == null ? null : toEmergencyRes(emergency));
+        dto.setInpatient(inpatient == null ? null : toInpatientRes(inpatient));
+        dto.setHistory(visitHistoryRepository
+                .findByVisitIdOrderByChangedAtDescIdDesc(visitId, PageRequest.of(0, Math.min(Math.max(historySize, 1), 100)))
+                .stream()
+                .map(this::toHistoryRes)
+                .collect(Collectors.toList()));
+        return dto;
     }
 
     @Transactional(readOnly = true)
@@ -162,8 +249,8 @@ public class ReceptionService {
     }
 
     @Transactional(readOnly = true)
-    public List<VisitHistoryRes> findAllVisitHistory() {
-        return visitHistoryRepository.findAllByOrderByChangedAtDescIdDesc()
+    public List<VisitHistoryRes> findAllVisitHistory(VisitHistorySearchReq cond) {
+        return visitHistoryRepository.searchHistory(cond)
                 .stream()
                 .map(this::toHistoryRes)
                 .collect(Collectors.toList());
@@ -177,7 +264,10 @@ public class ReceptionService {
     }
 
     public VisitReservationRes saveReservation(Long visitId, VisitReservationReq req) {
-        ensureVisitExists(visitId);
+        VisitEntity visit = visitRepository.findById(visitId)
+                .orElseThrow(() -> new NoSuchElementException("visit not found"));
+        // Rejects with 409 before anything is written when the slot is full.
+        reservationSlotEngine.reserve(visitId, visit.getDoctorId(), visit.getDeptCode(), req.getScheduledAt());
         VisitReservationEntity entity = visitReservationRepository.findById(visitId).orElseGet(VisitReservationEntity::new);
         entity.setVisitId(visitId);
         entity.setReservationId(blankToNull(req.getReservationId()));
@@ -194,6 +284,7 @@ public class ReceptionService {
     public void deleteReservation(Long visitId) {
         if (visitReservationRepository.existsById(visitId)) {
             visitReservationRepository.deleteById(visitId);
+            reservationSlotEngine.release(visitId);
             addHistory(visitId, "RESERVATION", null, null, null, "reservation deleted", "system");
         }
     }
@@ -217,6 +308,7 @@ public class ReceptionService {
 
         VisitEmergencyEntity saved = visitEmergencyRepository.save(entity);
         addHistory(visitId, "EMERGENCY", null, null, null, "emergency saved", "system");
+        eventPublisher.publishEvent(new EmergencyChangedEvent(visitId));
         return toEmergencyRes(saved);
     }
 
@@ -224,6 +316,7 @@ public class ReceptionService {
         if (visitEmergencyRepository.existsById(visitId)) {
             visitEmergencyRepository.deleteById(visitId);
             addHistory(visitId, "EMERGENCY", null, null, null, "emergency deleted", "system");
+            eventPublisher.publishEvent(new EmergencyChangedEvent(visitId));
         }
     }
 
@@ -235,7 +328,8 @@ public class ReceptionService {
     }
 
     public VisitInpatientRes saveInpatient(Long visitId, VisitInpatientReq req) {
-        ensureVisitExists(visitId);
+        VisitEntity visit = visitRepository.findById(visitId)
+                .orElseThrow(() -> new NoSuchElementException("visit not found"));
         VisitInpatientEntity entity = visitInpatientRepository.findById(visitId).orElseGet(VisitInpatientEntity::new);
         entity.setVisitId(visitId);
         entity.setWardCode(blankToNull(req.getWardCode()));
@@ -243,9 +337,18 @@ public class ReceptionService {
         entity.setBedNo(blankToNull(req.getBedNo()));
         entity.setAdmissionAt(req.getAdmissionAt());
         entity.setNote(blankToNull(req.getNote()));
+        entity.setActiveYn(!"CANCELLED".equals(visit.getStatus()));
         entity.setUpdatedAt(LocalDateTime.now());
 
-        VisitInpatientEntity saved = visitInpatientRepository.save(entity);
+        // Rejects with 409 when another visit holds the bed: first in this node's index, then in the
+        // unique bed index, which also sees claims made on other nodes.
+        wardBedService.assign(visit, entity);
+        VisitInpatientEntity saved;
+        try {
+            saved = visitInpatientRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "bed is occupied by another visit");
+        }
         addHistory(visitId, "INPATIENT", null, null, null, "inpatient saved", "system");
         return toInpatientRes(saved);
     }
@@ -253,16 +356,59 @@ public class ReceptionService {
     public void deleteInpatient(Long visitId) {
         if (visitInpatientRepository.existsById(visitId)) {
             visitInpatientRepository.deleteById(visitId);
+            wardBedService.release(visitId);
             addHistory(visitId, "INPATIENT", null, null, null, "inpatient deleted", "system");
         }
     }
 
+    // A cancelled visit gives up its bed in UX_VISIT_INPATIENT_BED; an un-cancelled one takes it back if still free.
+    private void syncInpatientActive(VisitEntity visit) {
+        try {
+            visitInpatientRepository.updateActiveYn(visit.getId(), !"CANCELLED".equals(visit.getStatus()));
+        } catch (DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "bed is occupied by another visit");
+        }
+    }
+
     private void ensureVisitExists(Long visitId) {
         if (!visitRepository.existsById(visitId)) {
             throw new NoSuchElementException("visit not found");
         }
     }
 
+    // Reservations are loaded for the given visits only.
+    private List<VisitRes> toVisitResList(List<VisitEntity> visits) {
+        if (visits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, VisitReservationEntity> reservationMap = visitReservationRepository
+                .findByVisitIdIn(visits.stream().map(VisitEntity::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(VisitReservationEntity::getVisitId, x -> x));
+
+        return visits.stream().map(v -> toVisitRes(v, reservationMap.get(v.getId()))).collect(Collectors.toList());
+    }
+
+    private String encodeCursor(VisitEntity last) {
+        String raw = last.getCreatedAt() + "," + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+
     private VisitRes toVisitRes(VisitEntity entity, VisitReservationEntity reservation) {
         VisitRes dto = new VisitRes();
         dto.setId(entity.getId());
@@ -342,16 +488,8 @@ public class ReceptionService {
     }
 
     private void addHistory(Long visitId, String eventType, String fieldName, String oldValue, String newValue, String reason, String changedBy) {
-        VisitHistoryEntity history = new VisitHistoryEntity();
-        history.setVisitId(visitId);
-        history.setEventType(eventType);
-        history.setFieldName(fieldName);
-        history.setOldValue(oldValue);
-        history.setNewValue(newValue);
-        history.setReason(reason);
-        history.setChangedBy(defaultText(changedBy, "system"));
-        history.setChangedAt(LocalDateTime.now());
-        visitHistoryRepository.save(history);
+        historyJournal.append(HISTORY_TABLE, new HistoryRecord(visitId, eventType, fieldName, oldValue, newValue,
+                reason, defaultText(changedBy, "system")));
     }
 
     private <T> int applyChange(Long visitId, String eventType, String fieldName, T oldValue, T newValue, Consumer<T> setter, String changedBy) {
@@ -366,11 +504,6 @@ public class ReceptionService {
         return 1;
     }
 
-    private String generateVisitNo(Long id) {
-        String date = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
-        return "V" + date + "-" + String.format("%06d", id);
-    }
-
     private String defaultText(String value, String fallback) {
         return value == null || value.trim().isEmpty() ? fallback : value.trim();
     }
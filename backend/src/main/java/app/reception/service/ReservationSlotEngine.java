@@ -0,0 +1,349 @@
+package app.reception.service;
+
+import app.reception.dto.ReservationSlotRes;
+import app.reception.entity.VisitEntity;
+import app.reception.repository.VisitReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reservation slot capacity per doctor (or per dept when no doctor is assigned).
+ *
+ * Each schedule is a sorted map slot index -> booked count, slot index = minutes since epoch / slotMinutes,
+ * and every visit maps to at most one booked slot. Claims check and book under one lock, so two concurrent
+ * saveReservation calls cannot both take the last place; a claim made inside a transaction is undone if
+ * that transaction rolls back.
+ *
+ * The index lives on this node and is rebuilt from VISIT_RESERVATION on startup; it answers the free-slot
+ * search and turns away full slots without a database round trip. Capacity across nodes is held by
+ * CMH.VISIT_RESERVATION_SEAT: a booking also takes one numbered seat (1..capacity) of its slot in the
+ * reservation's transaction, and the seat primary key lets only one booking commit per seat. Bookings made
+ * on another node show up in this node's counts only after a restart, but they still hold their seats.
+ */
+@Slf4j
+@Service
+public class ReservationSlotEngine {
+
+    private static final String CANCELLED = "CANCELLED";
+    // Upper bound for the free-slot search so an always-full schedule cannot loop for long.
+    private static final int MAX_SEARCH_DAYS = 60;
+    // Seats past capacity are only taken by doctor / dept moves, which are never refused.
+    private static final int MAX_OVERBOOKED_SEATS = 100;
+
+    private static final String CLAIM_SEAT_SQL =
+            "INSERT INTO CMH.VISIT_RESERVATION_SEAT (SCHEDULE_KEY, SLOT_NO, SEAT_NO, VISIT_ID) VALUES (?, ?, ?, ?)";
+    private static final String RELEASE_SEAT_SQL = "DELETE FROM CMH.VISIT_RESERVATION_SEAT WHERE VISIT_ID = ?";
+    private static final String FIND_SEAT_SQL = "SELECT SCHEDULE_KEY, SLOT_NO FROM CMH.VISIT_RESERVATION_SEAT WHERE VISIT_ID = ?";
+
+    private final VisitReservationRepository visitReservationRepository;
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.reception.slot.minutes:15}")
+    private int slotMinutes;
+
+    @Value("${app.reception.slot.doctor-capacity:1}")
+    private int doctorCapacity;
+
+    // Bookings for a dept with no doctor assigned yet; 0 = no limit.
+    @Value("${app.reception.slot.dept-capacity:3}")
+    private int deptCapacity;
+
+    @Value("${app.reception.slot.open-time:09:00}")
+    private String openTime;
+
+    @Value("${app.reception.slot.close-time:18:00}")
+    private String closeTime;
+
+    // All state below is guarded by this.
+    private final Map<String, TreeMap<Long, Integer>> schedules = new HashMap<>();
+    private final Map<Long, Booking> bookings = new HashMap<>();
+
+    public ReservationSlotEngine(VisitReservationRepository visitReservationRepository, JdbcTemplate jdbc) {
+        this.visitReservationRepository = visitReservationRepository;
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = visitReservationRepository.findBookedSlots(LocalDate.now().atStartOfDay());
+        synchronized (this) {
+            schedules.clear();
+            bookings.clear();
+            for (Object[] row : rows) {
+                String key = scheduleKey((String) row[2], (String) row[3]);
+                LocalDateTime scheduledAt = (LocalDateTime) row[1];
+                if (key != null && scheduledAt != null) {
+                    book((Long) row[0], new Booking(key, slotOf(scheduledAt)));
+                }
+            }
+        }
+        log.info("[SLOT] loaded {} reservations", rows.size());
+    }
+
+    /**
+     * Books the slot holding scheduledAt for the visit, moving any earlier booking of the same visit.
+     * Throws 409 when the slot is already full, on this node or in CMH.VISIT_RESERVATION_SEAT.
+     */
+    public void reserve(Long visitId, String doctorId, String deptCode, LocalDateTime scheduledAt) {
+        String key = scheduleKey(doctorId, deptCode);
+        if (key == null || scheduledAt == null) {
+            release(visitId);
+            return;
+        }
+        Booking target = new Booking(key, slotOf(scheduledAt));
+        Booking previous;
+        synchronized (this) {
+            previous = bookings.get(visitId);
+            if (target.equals(previous)) return;
+            int capacity = capacityOf(key);
+            if (capacity > 0 && bookedIn(target) >= capacity) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "reservation slot is full: " + startOf(target.slot));
+            }
+            unbook(visitId);
+            book(visitId, target);
+        }
+        undoOnRollback(visitId, target, previous);
+        if (claimSeat(visitId, target, false) == 0) {
+            // Full on another node; without a transaction to roll back, undo the local booking here.
+            undo(visitId, target, previous);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "reservation slot is full: " + startOf(target.slot));
+        }
+    }
+
+    public void release(Long visitId) {
+        Booking previous;
+        synchronized (this) {
+            previous = unbook(visitId);
+        }
+        jdbc.update(RELEASE_SEAT_SQL, visitId);
+        if (previous != null) {
+            undoOnRollback(visitId, null, previous);
+        }
+    }
+
+    // Seat side of onVisitChanged, in the visit's transaction: a cancelled visit gives its seat up and a
+    // doctor / dept change moves it, past capacity if the new schedule is full.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void moveSeat(VisitChangedEvent event) {
+        VisitEntity visit = event.getSnapshot();
+        if (CANCELLED.equals(visit.getStatus())) {
+            jdbc.update(RELEASE_SEAT_SQL, event.getVisitId());
+            return;
+        }
+        String key = scheduleKey(visit.getDoctorId(), visit.getDeptCode());
+        List<Booking> seats = jdbc.query(FIND_SEAT_SQL,
+                (rs, rowNum) -> new Booking(rs.getString("SCHEDULE_KEY"), rs.getLong("SLOT_NO")), event.getVisitId());
+        if (key == null || seats.isEmpty() || key.equals(seats.get(0).key)) return;
+        claimSeat(event.getVisitId(), new Booking(key, seats.get(0).slot), true);
+    }
+
+    // Cancelled visits free their slot; a doctor / dept change moves the booking without a capacity check.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        VisitEntity visit = event.getSnapshot();
+        synchronized (this) {
+            Booking current = bookings.get(event.getVisitId());
+            if (current == null) return;
+            if (CANCELLED.equals(visit.getStatus())) {
+                unbook(event.getVisitId());
+                return;
+            }
+            String key = scheduleKey(visit.getDoctorId(), visit.getDeptCode());
+            if (key != null && !key.equals(current.key)) {
+                unbook(event.getVisitId());
+                book(event.getVisitId(), new Booking(key, current.slot));
+            }
+        }
+    }
+
+    // The next free slots at or after from, inside opening hours and not in the past.
+    public List<ReservationSlotRes> findFreeSlots(String doctorId, String deptCode, LocalDateTime from, int count) {
+        String key = scheduleKey(doctorId, deptCode);
+        if (key == null) {
+            throw new IllegalArgumentException("doctorId or deptCode is required");
+        }
+        int limit = Math.min(Math.max(count, 1), 100);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalTime open = LocalTime.parse(openTime);
+        LocalTime close = LocalTime.parse(closeTime);
+        int capacity = capacityOf(key);
+
+        List<ReservationSlotRes> result = new ArrayList<>(limit);
+        long slot = slotOf(start);
+        if (startOf(slot).isBefore(start)) slot++;
+        long lastSlot = slotOf(start.plusDays(MAX_SEARCH_DAYS));
+        synchronized (this) {
+            TreeMap<Long, Integer> schedule = schedules.get(key);
+            while (result.size() < limit && slot <= lastSlot) {
+                LocalDateTime slotStart = startOf(slot);
+                LocalTime time = slotStart.toLocalTime();
+                if (time.isBefore(open)) {
+                    slot = slotOf(slotStart.toLocalDate().atTime(open));
+                    if (startOf(slot).toLocalTime().isBefore(open)) slot++;
+                    continue;
+                }
+                LocalTime end = time.plusMinutes(slotMinutes);
+                // end < time: the slot runs past midnight.
+                if (end.isAfter(close) || end.isBefore(time)) {
+                    slot = slotOf(slotStart.toLocalDate().plusDays(1).atTime(open));
+                    if (startOf(slot).toLocalTime().isBefore(open)) slot++;
+                    continue;
+                }
+                int booked = schedule == null ? 0 : schedule.getOrDefault(slot, 0);
+                if (capacity <= 0 || booked < capacity) {
+                    result.add(toSlotRes(slot, booked, capacity));
+                }
+                slot++;
+            }
+        }
+        return result;
+    }
+
+    private void undoOnRollback(Long visitId, Booking applied, Booking previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo(visitId, applied, previous);
+                }
+            }
+        });
+    }
+
+    // Puts back the booking that applied replaced, unless the visit was booked again since.
+    private synchronized void undo(Long visitId, Booking applied, Booking previous) {
+        if (!Objects.equals(bookings.get(visitId), applied)) return;
+        unbook(visitId);
+        if (previous == null) return;
+        // The rollback restored the previous reservation and its seat, so it is kept even if this node
+        // booked the freed place meanwhile; that claim fails on the seat and is undone in turn.
+        int capacity = capacityOf(previous.key);
+        if (capacity > 0 && bookedIn(previous) >= capacity) {
+            log.warn("[SLOT] restored booking exceeds capacity: visitId={} slot={} booked={} capacity={}",
+                    visitId, startOf(previous.slot), bookedIn(previous), capacity);
+        }
+        book(visitId, previous);
+    }
+
+    /**
+     * Takes the lowest free seat of the booking's slot, dropping the visit's current seat first. Returns the
+     * seat number, or 0 when seats 1..capacity are all taken (by any node); force goes past capacity instead.
+     * Schedules without a limit keep no seats.
+     */
+    private int claimSeat(Long visitId, Booking booking, boolean force) {
+        jdbc.update(RELEASE_SEAT_SQL, visitId);
+        int capacity = capacityOf(booking.key);
+        if (capacity <= 0) return -1;
+        int lastSeat = force ? capacity + MAX_OVERBOOKED_SEATS : capacity;
+        for (int seat = 1; seat <= lastSeat; seat++) {
+            try {
+                jdbc.update(CLAIM_SEAT_SQL, booking.key, booking.slot, seat, visitId);
+                if (seat > capacity) {
+                    log.warn("[SLOT] moved booking exceeds capacity: visitId={} slot={} seat={} capacity={}",
+                            visitId, startOf(booking.slot), seat, capacity);
+                }
+                return seat;
+            } catch (DuplicateKeyException ex) {
+                // Taken, possibly by a booking on another node; try the next seat.
+            }
+        }
+        return 0;
+    }
+
+    private int bookedIn(Booking booking) {
+        TreeMap<Long, Integer> schedule = schedules.get(booking.key);
+        return schedule == null ? 0 : schedule.getOrDefault(booking.slot, 0);
+    }
+
+    private void book(Long visitId, Booking booking) {
+        schedules.computeIfAbsent(booking.key, k -> new TreeMap<>()).merge(booking.slot, 1, Integer::sum);
+        bookings.put(visitId, booking);
+    }
+
+    private Booking unbook(Long visitId) {
+        Booking booking = bookings.remove(visitId);
+        if (booking == null) return null;
+        TreeMap<Long, Integer> schedule = schedules.get(booking.key);
+        if (schedule != null) {
+            schedule.computeIfPresent(booking.slot, (slot, booked) -> booked <= 1 ? null : booked - 1);
+            if (schedule.isEmpty()) {
+                schedules.remove(booking.key);
+            }
+        }
+        return booking;
+    }
+
+    private int capacityOf(String key) {
+        return key.startsWith("D:") ? doctorCapacity : deptCapacity;
+    }
+
+    private String scheduleKey(String doctorId, String deptCode) {
+        if (doctorId != null && !doctorId.trim().isEmpty()) return "D:" + doctorId.trim();
+        if (deptCode != null && !deptCode.trim().isEmpty()) return "T:" + deptCode.trim();
+        return null;
+    }
+
+    private long slotOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC) / 60, slotMinutes);
+    }
+
+    private LocalDateTime startOf(long slot) {
+        return LocalDateTime.ofEpochSecond(slot * slotMinutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private ReservationSlotRes toSlotRes(long slot, int booked, int capacity) {
+        ReservationSlotRes dto = new ReservationSlotRes();
+        dto.setSlotStart(startOf(slot));
+        dto.setSlotEnd(startOf(slot + 1));
+        dto.setBooked(booked);
+        dto.setCapacity(Math.max(capacity, 0));
+        return dto;
+    }
+
+    private static final class Booking {
+        private final String key;
+        private final long slot;
+
+        private Booking(String key, long slot) {
+            this.key = key;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Booking)) return false;
+            Booking other = (Booking) o;
+            return slot == other.slot && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, slot);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package app.reception.service;
+
+import app.reception.entity.VisitEntity;
+
+/**
+ * Published by ReceptionService when a visit is created or changed.
+ * Carries a copy of the committed state, so listeners never touch the managed entity.
+ */
+public class VisitChangedEvent {
+
+    private final Long visitId;
+    private final VisitEntity snapshot;
+
+    public VisitChangedEvent(VisitEntity visit) {
+        this.visitId = visit.getId();
+        this.snapshot = copyOf(visit);
+    }
+
+    public Long getVisitId() {
+        return visitId;
+    }
+
+    public VisitEntity getSnapshot() {
+        return snapshot;
+    }
+
+    private static VisitEntity copyOf(VisitEntity source) {
+        VisitEntity copy = new VisitEntity();
+        copy.setId(source.getId());
+        copy.setVisitNo(source.getVisitNo());
+        copy.setPatientId(source.getPatientId());
+        copy.setPatientName(source.getPatientName());
+        copy.setVisitType(source.getVisitType());
+        copy.setStatus(source.getStatus());
+        copy.setDeptCode(source.getDeptCode());
+        copy.setDoctorId(source.getDoctorId());
+        copy.setPriorityYn(source.getPriorityYn());
+        copy.setQueueNo(source.getQueueNo());
+        copy.setCalledAt(source.getCalledAt());
+        copy.setStartedAt(source.getStartedAt());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+}
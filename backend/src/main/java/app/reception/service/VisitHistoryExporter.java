@@ -0,0 +1,216 @@
+package app.reception.service;
+
+import app.reception.dto.VisitHistoryRes;
+import app.reception.dto.VisitHistorySearchReq;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams VISIT_HISTORY straight from one JDBC cursor to the response body.
+ * Rows are fetched fetchSize at a time and written as they arrive, so memory does not grow with the
+ * table; nothing goes through the persistence context.
+ */
+@Component
+public class VisitHistoryExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv; charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            if (value == null || value.trim().isEmpty()) return NDJSON;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String SELECT_SQL =
+            "SELECT ID, VISIT_ID, EVENT_TYPE, FIELD_NAME, OLD_VALUE, NEW_VALUE, REASON, CHANGED_BY, CHANGED_AT "
+                    + "FROM CMH.VISIT_HISTORY";
+
+    private static final String CSV_HEADER =
+            "id,visitId,eventType,fieldName,oldValue,newValue,reason,changedBy,changedAt";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.reception.history-export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.reception.history-export.timeout:10m}")
+    private Duration timeout;
+
+    public VisitHistoryExporter(JdbcTemplate jdbc, ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+    }
+
+    // How long one export may stream before the request is timed out.
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void export(VisitHistorySearchReq cond, Format format, OutputStream out) throws IOException {
+        if (format == Format.CSV) {
+            writeCsv(cond, out);
+        } else {
+            writeNdjson(cond, out);
+        }
+    }
+
+    private void writeNdjson(VisitHistorySearchReq cond, OutputStream out) throws IOException {
+        // One flush at the end; the servlet stream still sends chunks as its buffer fills.
+        ObjectWriter writer = objectMapper.writerFor(VisitHistoryRes.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            query(cond, rs -> {
+                try {
+                    writer.writeValue(generator, toRes(rs));
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(VisitHistorySearchReq cond, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        // BOM so Excel opens Korean text as UTF-8.
+        writer.write('\uFEFF');
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        query(cond, rs -> {
+            try {
+                writer.write(String.valueOf(rs.getLong("ID")));
+                writer.write(',');
+                writer.write(String.valueOf(rs.getLong("VISIT_ID")));
+                for (String column : new String[]{"EVENT_TYPE", "FIELD_NAME", "OLD_VALUE", "NEW_VALUE", "REASON", "CHANGED_BY"}) {
+                    writer.write(',');
+                    writeCsvField(writer, rs.getString(column));
+                }
+                writer.write(',');
+                Timestamp changedAt = rs.getTimestamp("CHANGED_AT");
+                if (changedAt != null) {
+                    writer.write(changedAt.toLocalDateTime().toString());
+                }
+                writer.write("\r\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+    }
+
+    private void query(VisitHistorySearchReq cond, RowCallbackHandler handler) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>(3);
+        String glue = " WHERE ";
+        if (cond != null) {
+            if (cond.getFromDate() != null) {
+                sql.append(glue).append("CHANGED_AT >= ?");
+                args.add(Timestamp.valueOf(cond.getFromDate().atStartOfDay()));
+                glue = " AND ";
+            }
+            if (cond.getToDate() != null) {
+                sql.append(glue).append("CHANGED_AT < ?");
+                args.add(Timestamp.valueOf(cond.getToDate().plusDays(1).atStartOfDay()));
+                glue = " AND ";
+            }
+            if (cond.getVisitId() != null) {
+                sql.append(glue).append("VISIT_ID = ?");
+                args.add(cond.getVisitId());
+            }
+        }
+        sql.append(" ORDER BY CHANGED_AT DESC, ID DESC");
+
+        try {
+            jdbc.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Math.max(fetchSize, 1));
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                return ps;
+            }, handler);
+        } catch (UncheckedIOException ex) {
+            // Client went away; stop reading and let the caller see the I/O error.
+            throw ex.getCause();
+        }
+    }
+
+    private VisitHistoryRes toRes(ResultSet rs) throws SQLException {
+        VisitHistoryRes dto = new VisitHistoryRes();
+        dto.setId(rs.getLong("ID"));
+        dto.setVisitId(rs.getLong("VISIT_ID"));
+        dto.setEventType(rs.getString("EVENT_TYPE"));
+        dto.setFieldName(rs.getString("FIELD_NAME"));
+        dto.setOldValue(rs.getString("OLD_VALUE"));
+        dto.setNewValue(rs.getString("NEW_VALUE"));
+        dto.setReason(rs.getString("REASON"));
+        dto.setChangedBy(rs.getString("CHANGED_BY"));
+        Timestamp changedAt = rs.getTimestamp("CHANGED_AT");
+        dto.setChangedAt(changedAt == null ? null : changedAt.toLocalDateTime());
+        return dto;
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,120 @@
+package app.reception.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side visit and queue numbers.
+ *
+ * Visit numbers come from CMH.VISIT_NO_SEQ (INCREMENT BY blockSize): one NEXTVAL reserves a block and
+ * numbers inside it are handed out with a CAS, so only one call in blockSize touches the database.
+ * Blocks are unique across nodes; numbers are unique but not in creation order.
+ *
+ * Queue numbers must be dense and in arrival order across nodes, so they come from a Redis counter per
+ * dept per day (one INCR, the key name changes at midnight). The first call of the day for a dept seeds
+ * the counter from VISIT_REG, so a flushed Redis never re-issues numbers already given out today.
+ */
+@Slf4j
+@Component
+public class VisitNumberAllocator {
+
+    private static final String KEY_PREFIX = "reception:queue-no:";
+    private static final long KEY_TTL_SECONDS = 2 * 24 * 60 * 60L;
+
+    // -1 when the counter does not exist yet (needs seeding).
+    private static final DefaultRedisScript<Long> NEXT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end\n"
+                    + "return redis.call('INCR', KEYS[1])\n",
+            Long.class
+    );
+
+    private static final DefaultRedisScript<Long> SEED_AND_NEXT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2])\n"
+                    + "return redis.call('INCR', KEYS[1])\n",
+            Long.class
+    );
+
+    private final JdbcTemplate jdbc;
+    private final StringRedisTemplate redisTemplate;
+
+    // Must match INCREMENT BY of CMH.VISIT_NO_SEQ.
+    @Value("${app.reception.visit-no.block-size:50}")
+    private int blockSize;
+
+    private volatile Block block = new Block(0, 0);
+
+    public VisitNumberAllocator(JdbcTemplate jdbc, StringRedisTemplate redisTemplate) {
+        this.jdbc = jdbc;
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String nextVisitNo(LocalDate date) {
+        return "V" + date.format(DateTimeFormatter.BASIC_ISO_DATE) + "-" + String.format("%06d", nextVisitSequence());
+    }
+
+    public int nextQueueNo(String deptCode, LocalDate date) {
+        String key = KEY_PREFIX + date.format(DateTimeFormatter.BASIC_ISO_DATE) + ":" + deptCode;
+        try {
+            Long next = redisTemplate.execute(NEXT_SCRIPT, List.of(key));
+            if (next == null || next < 0) {
+                next = redisTemplate.execute(SEED_AND_NEXT_SCRIPT, List.of(key),
+                        String.valueOf(maxQueueNo(deptCode, date)), String.valueOf(KEY_TTL_SECONDS));
+            }
+            if (next != null) {
+                return next.intValue();
+            }
+        } catch (DataAccessException ex) {
+            log.warn("[QUEUE] Redis queue counter unavailable, using VISIT_REG max: {}", ex.getMessage());
+        }
+        // Not safe against concurrent receptions, but keeps reception working while Redis is down.
+        return maxQueueNo(deptCode, date) + 1;
+    }
+
+    private long nextVisitSequence() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            synchronized (this) {
+                if (block == current) {
+                    long start = jdbc.queryForObject("SELECT CMH.VISIT_NO_SEQ.NEXTVAL FROM DUAL", Long.class);
+                    block = new Block(start, start + blockSize);
+                }
+            }
+        }
+    }
+
+    private int maxQueueNo(String deptCode, LocalDate date) {
+        Integer max = jdbc.queryForObject(
+                "SELECT NVL(MAX(QUEUE_NO), 0) FROM CMH.VISIT_REG WHERE DEPT_CODE = ? AND CREATED_AT >= ? AND CREATED_AT < ?",
+                Integer.class,
+                deptCode,
+                Timestamp.valueOf(date.atStartOfDay()),
+                Timestamp.valueOf(date.plusDays(1).atStartOfDay())
+        );
+        return max == null ? 0 : max;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package app.reception.service;
+
+import app.reception.dto.WaitingQueueEventRes;
+import app.reception.dto.WaitingQueueItemRes;
+import app.reception.entity.VisitEntity;
+import app.reception.repository.VisitRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory waiting list of today's WAITING visits per department, ordered by priority, queue number and arrival.
+ * Kept current from VisitChangedEvent (after commit) on this node and from Redis pub/sub for changes made on
+ * other nodes. Subscribers get a snapshot on connect and then ADDED / UPDATED / REMOVED events over SSE.
+ */
+@Slf4j
+@Service
+public class WaitingQueueService {
+
+    private static final String WAITING = "WAITING";
+
+    private static final Comparator<WaitingQueueItemRes> ORDER = Comparator
+            .comparing((WaitingQueueItemRes x) -> !Boolean.TRUE.equals(x.getPriorityYn()))
+            .thenComparing(WaitingQueueItemRes::getQueueNo, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(WaitingQueueItemRes::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(WaitingQueueItemRes::getVisitId);
+
+    private final VisitRepository visitRepository;
+    private final ReceptionLiveUpdates<QueueFilter> liveUpdates;
+
+    @Value("${app.reception.queue.channel:reception:queue}")
+    private String channel;
+
+    // Writes are serialized on this; readers only touch the skip lists.
+    private final Map<Long, WaitingQueueItemRes> byVisit = new HashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<WaitingQueueItemRes>> byDept = new ConcurrentHashMap<>();
+    private LocalDate day = LocalDate.now();
+    private final AtomicLong version = new AtomicLong();
+
+    public WaitingQueueService(VisitRepository visitRepository,
+                               StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer) {
+        this.visitRepository = visitRepository;
+        this.liveUpdates = new ReceptionLiveUpdates<>("QUEUE", "queue", redisTemplate, listenerContainer, this::onRemoteChange);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        liveUpdates.listen(channel);
+        List<VisitEntity> waiting = visitRepository.findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+                WAITING, LocalDate.now().atStartOfDay());
+        synchronized (this) {
+            for (VisitEntity visit : waiting) {
+                apply(visit.getId(), visit);
+            }
+        }
+        log.info("[QUEUE] loaded {} waiting visits", waiting.size());
+    }
+
+    public List<WaitingQueueItemRes> findQueue(String deptCode, String doctorId) {
+        String doctor = blankToNull(doctorId);
+        ConcurrentSkipListSet<WaitingQueueItemRes> queue = byDept.get(deptCode.trim());
+        if (queue == null) {
+            return new ArrayList<>();
+        }
+        LocalDate today = LocalDate.now();
+        return queue.stream()
+                .filter(x -> doctor == null || doctor.equals(x.getDoctorId()))
+                .filter(x -> x.getCreatedAt() == null || !x.getCreatedAt().toLocalDate().isBefore(today))
+                .collect(Collectors.toList());
+    }
+
+    public synchronized SseEmitter subscribe(String deptCode, String doctorId) {
+        QueueFilter filter = new QueueFilter(deptCode.trim(), blankToNull(doctorId));
+        return liveUpdates.subscribe(filter, findQueue(deptCode, doctorId), version.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        synchronized (this) {
+            apply(event.getVisitId(), event.getSnapshot());
+        }
+        liveUpdates.publish(event.getVisitId());
+    }
+
+    // A visit changed on another node: reload it and apply.
+    private void onRemoteChange(Long visitId) {
+        VisitEntity visit = visitRepository.findById(visitId).orElse(null);
+        synchronized (this) {
+            apply(visitId, visit);
+        }
+    }
+
+    // Caller holds the lock. visit is null when the row no longer exists.
+    private void apply(Long visitId, VisitEntity visit) {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day)) {
+            byVisit.clear();
+            byDept.clear();
+            day = today;
+        }
+
+        WaitingQueueItemRes previous = byVisit.remove(visitId);
+        if (previous != null) {
+            ConcurrentSkipListSet<WaitingQueueItemRes> queue = byDept.get(previous.getDeptCode());
+            if (queue != null) queue.remove(previous);
+        }
+
+        WaitingQueueItemRes current = null;
+        if (visit != null && WAITING.equals(visit.getStatus()) && visit.getDeptCode() != null
+                && (visit.getCreatedAt() == null || !visit.getCreatedAt().toLocalDate().isBefore(today))) {
+            current = toItem(visit);
+            byVisit.put(visitId, current);
+            byDept.computeIfAbsent(current.getDeptCode(), k -> new ConcurrentSkipListSet<>(ORDER)).add(current);
+        }
+
+        if (previous == null && current == null) {
+            return;
+        }
+        long eventVersion = version.incrementAndGet();
+        push(visitId, previous, current, eventVersion);
+    }
+
+    private void push(Long visitId, WaitingQueueItemRes previous, WaitingQueueItemRes current, long eventVersion) {
+        liveUpdates.push(eventVersion, filter -> {
+            boolean was = filter.matches(previous);
+            boolean is = filter.matches(current);
+            if (!was && !is) return null;
+            if (was && is && Objects.equals(previous, current)) return null;
+
+            WaitingQueueEventRes event = new WaitingQueueEventRes();
+            event.setType(!was ? "ADDED" : (is ? "UPDATED" : "REMOVED"));
+            event.setDeptCode(filter.deptCode);
+            event.setVisitId(visitId);
+            event.setItem(is ? current : null);
+            event.setVersion(eventVersion);
+            return event;
+        });
+    }
+
+    private WaitingQueueItemRes toItem(VisitEntity visit) {
+        WaitingQueueItemRes item = new WaitingQueueItemRes();
+        item.setVisitId(visit.getId());
+        item.setVisitNo(visit.getVisitNo());
+        item.setPatientId(visit.getPatientId());
+        item.setPatientName(visit.getPatientName());
+        item.setVisitType(visit.getVisitType());
+        item.setDeptCode(visit.getDeptCode());
+        item.setDoctorId(visit.getDoctorId());
+        item.setPriorityYn(visit.getPriorityYn());
+        item.setQueueNo(visit.getQueueNo());
+        item.setCreatedAt(visit.getCreatedAt());
+        return item;
+    }
+
+    private String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String v = value.trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static final class QueueFilter {
+        private final String deptCode;
+        private final String doctorId;
+
+        private QueueFilter(String deptCode, String doctorId) {
+            this.deptCode = deptCode;
+            this.doctorId = doctorId;
+        }
+
+        private boolean matches(WaitingQueueItemRes item) {
+            return item != null
+                    && deptCode.equals(item.getDeptCode())
+                    && (doctorId == null || doctorId.equals(item.getDoctorId()));
+        }
+    }
+}
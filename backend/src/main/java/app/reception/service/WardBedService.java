@@ -0,0 +1,373 @@
+package app.reception.service;
+
+import app.reception.dto.WardBedEventRes;
+import app.reception.dto.WardBedRes;
+import app.reception.dto.WardBoardRes;
+import app.reception.entity.VisitEntity;
+import app.reception.entity.VisitInpatientEntity;
+import app.reception.repository.VisitInpatientRepository;
+import app.reception.repository.VisitRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bed occupancy of inpatient visits: ward -> (room-bed -> occupant), so a bed lookup and a ward's occupied
+ * count are single hash lookups. Loaded from VISIT_INPATIENT on startup and kept current by saveInpatient /
+ * deleteInpatient on this node and by Redis pub/sub for changes made on other nodes.
+ *
+ * A bed is claimed when saveInpatient runs (a second visit on the same bed gets 409) and released again if
+ * the transaction rolls back; board subscribers only see committed changes. This check is per node; the
+ * unique index UX_VISIT_INPATIENT_BED rejects a bed claimed on two nodes at once.
+ */
+@Slf4j
+@Service
+public class WardBedService {
+
+    private static final String CANCELLED = "CANCELLED";
+
+    private static final Comparator<WardBedRes> BED_ORDER = Comparator
+            .comparing(WardBedRes::getRoomNo, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(WardBedRes::getBedNo);
+
+    private final VisitInpatientRepository visitInpatientRepository;
+    private final VisitRepository visitRepository;
+    private final WardLayoutProperties layoutProperties;
+    // Subscribers filter by ward code; null means every ward.
+    private final ReceptionLiveUpdates<String> liveUpdates;
+
+    @Value("${app.reception.ward.channel:reception:beds}")
+    private String channel;
+
+    // Writes are serialized on this; readers only touch the concurrent maps.
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, WardBedRes>> byWard = new ConcurrentHashMap<>();
+    private final Map<Long, WardBedRes> byVisit = new HashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public WardBedService(VisitInpatientRepository visitInpatientRepository,
+                          VisitRepository visitRepository,
+                          WardLayoutProperties layoutProperties,
+                          StringRedisTemplate redisTemplate,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.visitInpatientRepository = visitInpatientRepository;
+        this.visitRepository = visitRepository;
+        this.layoutProperties = layoutProperties;
+        this.liveUpdates = new ReceptionLiveUpdates<>("WARD", "bed", redisTemplate, listenerContainer, this::onRemoteChange);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        liveUpdates.listen(channel);
+        List<Object[]> rows = visitInpatientRepository.findOccupiedBeds();
+        synchronized (this) {
+            byWard.clear();
+            byVisit.clear();
+            for (Object[] row : rows) {
+                VisitInpatientEntity inpatient = (VisitInpatientEntity) row[0];
+                place(inpatient.getVisitId(), toBed(inpatient, (Long) row[1], (String) row[2]));
+            }
+        }
+        log.info("[WARD] loaded {} occupied beds", rows.size());
+    }
+
+    // The bed with its occupant, or with visitId null when it is free.
+    public WardBedRes findBed(String wardCode, String roomNo, String bedNo) {
+        String ward = requireText(wardCode, "wardCode");
+        String bed = requireText(bedNo, "bedNo");
+        String room = blankToNull(roomNo);
+        ConcurrentHashMap<String, WardBedRes> beds = byWard.get(ward);
+        WardBedRes occupant = beds == null ? null : beds.get(bedKey(room, bed));
+        return occupant != null ? occupant : freeBed(ward, room, bed);
+    }
+
+    // Every configured and every occupied ward, or only wardCode when given.
+    public List<WardBoardRes> findBoard(String wardCode) {
+        String only = blankToNull(wardCode);
+        Set<String> wards = new LinkedHashSet<>(layoutProperties.getBeds().keySet());
+        wards.addAll(byWard.keySet());
+
+        List<WardBoardRes> boards = new ArrayList<>();
+        for (String ward : wards) {
+            if (only == null || only.equals(ward)) {
+                boards.add(toBoard(ward));
+            }
+        }
+        return boards;
+    }
+
+    public synchronized SseEmitter subscribe(String wardCode) {
+        return liveUpdates.subscribe(blankToNull(wardCode), findBoard(wardCode), version.get());
+    }
+
+    /**
+     * Puts the visit on the bed of the inpatient row (or frees its bed when the row has none).
+     * Throws 409 when another visit already holds that bed.
+     */
+    public void assign(VisitEntity visit, VisitInpatientEntity inpatient) {
+        Long visitId = visit.getId();
+        WardBedRes target = CANCELLED.equals(visit.getStatus())
+                ? null : toBed(inpatient, visit.getPatientId(), visit.getPatientName());
+        WardBedRes previous;
+        synchronized (this) {
+            if (target != null) {
+                ConcurrentHashMap<String, WardBedRes> beds = byWard.get(target.getWardCode());
+                WardBedRes occupant = beds == null ? null : beds.get(bedKey(target.getRoomNo(), target.getBedNo()));
+                if (occupant != null && !visitId.equals(occupant.getVisitId())) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "bed is occupied by visit " + occupant.getVisitId());
+                }
+            }
+            previous = place(visitId, target);
+        }
+        afterTransaction(visitId, previous, target);
+    }
+
+    public void release(Long visitId) {
+        WardBedRes previous;
+        synchronized (this) {
+            previous = place(visitId, null);
+        }
+        afterTransaction(visitId, previous, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitChanged(VisitChangedEvent event) {
+        if (!CANCELLED.equals(event.getSnapshot().getStatus())) {
+            return;
+        }
+        WardBedRes previous;
+        synchronized (this) {
+            previous = place(event.getVisitId(), null);
+        }
+        if (previous != null) {
+            committed(event.getVisitId(), previous, null);
+        }
+    }
+
+    // A bed changed on another node: reload the visit's inpatient row and apply.
+    private void onRemoteChange(Long visitId) {
+        VisitEntity visit = visitRepository.findById(visitId).orElse(null);
+        VisitInpatientEntity inpatient = visitInpatientRepository.findById(visitId).orElse(null);
+        WardBedRes target = visit == null || inpatient == null || CANCELLED.equals(visit.getStatus())
+                ? null : toBed(inpatient, visit.getPatientId(), visit.getPatientName());
+        synchronized (this) {
+            push(place(visitId, target), target);
+        }
+    }
+
+    // Caller holds the lock. Returns the bed the visit held before.
+    private WardBedRes place(Long visitId, WardBedRes target) {
+        WardBedRes previous = byVisit.remove(visitId);
+        if (previous != null) {
+            ConcurrentHashMap<String, WardBedRes> beds = byWard.get(previous.getWardCode());
+            if (beds != null) {
+                beds.remove(bedKey(previous.getRoomNo(), previous.getBedNo()), previous);
+                if (beds.isEmpty() && !layoutProperties.getBeds().containsKey(previous.getWardCode())) {
+                    byWard.remove(previous.getWardCode(), beds);
+                }
+            }
+        }
+        if (target != null) {
+            byWard.computeIfAbsent(target.getWardCode(), k -> new ConcurrentHashMap<>())
+                    .put(bedKey(target.getRoomNo(), target.getBedNo()), target);
+            byVisit.put(visitId, target);
+        }
+        return previous;
+    }
+
+    private void afterTransaction(Long visitId, WardBedRes previous, WardBedRes current) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(visitId, previous, current);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed(visitId, previous, current);
+                    return;
+                }
+                synchronized (WardBedService.this) {
+                    if (!Objects.equals(byVisit.get(visitId), current)) {
+                        return;
+                    }
+                    if (previous != null && !isFree(previous, visitId)) {
+                        // Another visit took the old bed while this one was moving; that claim stands.
+                        log.warn("[WARD] bed {}/{} taken during rollback, not restored: visitId={}",
+                                previous.getWardCode(), bedKey(previous.getRoomNo(), previous.getBedNo()), visitId);
+                        place(visitId, null);
+                    } else {
+                        place(visitId, previous);
+                    }
+                }
+            }
+        });
+    }
+
+    // Caller holds the lock.
+    private boolean isFree(WardBedRes bed, Long visitId) {
+        ConcurrentHashMap<String, WardBedRes> beds = byWard.get(bed.getWardCode());
+        WardBedRes occupant = beds == null ? null : beds.get(bedKey(bed.getRoomNo(), bed.getBedNo()));
+        return occupant == null || visitId.equals(occupant.getVisitId());
+    }
+
+    private void committed(Long visitId, WardBedRes previous, WardBedRes current) {
+        synchronized (this) {
+            push(previous, current);
+        }
+        liveUpdates.publish(visitId);
+    }
+
+    // Caller holds the lock, so a subscriber's snapshot and its events line up.
+    private void push(WardBedRes previous, WardBedRes current) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        long eventVersion = version.incrementAndGet();
+        if (previous != null) {
+            WardBedRes freed = freeBed(previous.getWardCode(), previous.getRoomNo(), previous.getBedNo());
+            publishEvent("RELEASED", freed, eventVersion);
+        }
+        if (current != null) {
+            publishEvent("OCCUPIED", current, eventVersion);
+        }
+    }
+
+    private void publishEvent(String type, WardBedRes bed, long eventVersion) {
+        WardBedEventRes event = new WardBedEventRes();
+        event.setType(type);
+        event.setWardCode(bed.getWardCode());
+        event.setBed(bed);
+        event.setOccupied(occupiedIn(bed.getWardCode()));
+        event.setVersion(eventVersion);
+        liveUpdates.push(eventVersion, wardCode -> wardCode == null || wardCode.equals(bed.getWardCode()) ? event : null);
+    }
+
+    private WardBoardRes toBoard(String ward) {
+        ConcurrentHashMap<String, WardBedRes> occupied = byWard.getOrDefault(ward, new ConcurrentHashMap<>());
+        List<String> layout = layoutProperties.getBeds().get(ward);
+
+        List<WardBedRes> beds = new ArrayList<>();
+        Set<String> listed = new LinkedHashSet<>();
+        if (layout != null) {
+            for (String label : layout) {
+                String room = roomOf(label);
+                String bed = bedOf(label);
+                String key = bedKey(room, bed);
+                WardBedRes occupant = occupied.get(key);
+                beds.add(occupant != null ? occupant : freeBed(ward, room, bed));
+                listed.add(key);
+            }
+        }
+        // Occupied beds that are not in the configured layout.
+        List<WardBedRes> extra = new ArrayList<>();
+        for (Map.Entry<String, WardBedRes> entry : occupied.entrySet()) {
+            if (!listed.contains(entry.getKey())) {
+                extra.add(entry.getValue());
+            }
+        }
+        extra.sort(BED_ORDER);
+        beds.addAll(extra);
+
+        WardBoardRes board = new WardBoardRes();
+        board.setWardCode(ward);
+        board.setTotalBeds(layout == null ? 0 : layout.size());
+        board.setOccupied(occupied.size());
+        // Beds outside the layout are always occupied, so every free bed is a configured one.
+        board.setAvailable(layout == null ? null : freeCount(beds));
+        board.setBeds(beds);
+        return board;
+    }
+
+    private int freeCount(List<WardBedRes> beds) {
+        int free = 0;
+        for (WardBedRes bed : beds) {
+            if (bed.getVisitId() == null) free++;
+        }
+        return free;
+    }
+
+    private int occupiedIn(String ward) {
+        ConcurrentHashMap<String, WardBedRes> beds = byWard.get(ward);
+        return beds == null ? 0 : beds.size();
+    }
+
+    private WardBedRes toBed(VisitInpatientEntity inpatient, Long patientId, String patientName) {
+        String ward = blankToNull(inpatient.getWardCode());
+        String bed = blankToNull(inpatient.getBedNo());
+        if (ward == null || bed == null) {
+            return null;
+        }
+        WardBedRes dto = new WardBedRes();
+        dto.setWardCode(ward);
+        dto.setRoomNo(blankToNull(inpatient.getRoomNo()));
+        dto.setBedNo(bed);
+        dto.setVisitId(inpatient.getVisitId());
+        dto.setPatientId(patientId);
+        dto.setPatientName(patientName);
+        dto.setAdmissionAt(inpatient.getAdmissionAt());
+        return dto;
+    }
+
+    private WardBedRes freeBed(String ward, String room, String bed) {
+        WardBedRes dto = new WardBedRes();
+        dto.setWardCode(ward);
+        dto.setRoomNo(room);
+        dto.setBedNo(bed);
+        return dto;
+    }
+
+    private String bedKey(String roomNo, String bedNo) {
+        return roomNo == null ? bedNo : roomNo + "-" + bedNo;
+    }
+
+    // Layout labels are room-bed; a label without '-' is a bed with no room.
+    private String roomOf(String label) {
+        int dash = label.trim().lastIndexOf('-');
+        return dash <= 0 ? null : label.trim().substring(0, dash);
+    }
+
+    private String bedOf(String label) {
+        int dash = label.trim().lastIndexOf('-');
+        return dash <= 0 ? label.trim() : label.trim().substring(dash + 1);
+    }
+
+    private String requireText(String value, String name) {
+        String v = blankToNull(value);
+        if (v == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return v;
+    }
+
+    private String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String v = value.trim();
+        return v.isEmpty() ? null : v;
+    }
+}
@@ -0,0 +1,18 @@
+package app.reception.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "app.reception.ward")
+public class WardLayoutProperties {
+
+    // Beds per ward as room-bed, e.g. app.reception.ward.beds.[3W]=301-1,301-2,302-1.
+    // Wards missing here still show their occupied beds, without free counts.
+    private Map<String, List<String>> beds = new LinkedHashMap<>();
+}
@@ -66,6 +66,7 @@ public class SecurityConfig {
                 .antMatchers("/api/jpa/staff-credentials/**").hasAnyRole("ADMIN", "DOCTOR", "NURSE")
                 .antMatchers("/api/jpa/staff-change-requests/**").hasRole("ADMIN")
                 .antMatchers("/api/jpa/staff-audit-logs/**").hasRole("ADMIN")
+                .antMatchers("/api/ops/**").hasRole("ADMIN")
                 .antMatchers(HttpMethod.PUT, "/api/jpa/medical-staff/me").authenticated()
                 .antMatchers(HttpMethod.GET, "/api/jpa/medical-staff/me").authenticated()
                 .antMatchers(HttpMethod.PATCH, "/api/jpa/medical-staff/me/photo").authenticated()
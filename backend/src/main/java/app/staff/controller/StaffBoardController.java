@@ -36,10 +36,16 @@ public class StaffBoardController {
             @PathVariable String category,
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
         try {
-            StaffBoardPageRes result = staffBoardService.search(category, keyword, page, size);
+            // slice=true skips the count query: page is ignored and nextCursor is passed back as cursor.
+            StaffBoardPageRes result = slice
+                    ? staffBoardService.searchSlice(category, keyword, cursor, size, withTotal)
+                    : staffBoardService.search(category, keyword, page, size);
             return ResponseEntity.ok(new ApiResponse<StaffBoardPageRes>().ok(result));
         } catch (InvalidDataAccessResourceUsageException e) {
             return ResponseEntity.status(503).body(new ApiResponse<StaffBoardPageRes>().error("직원 게시판 DB가 아직 준비되지 않았습니다."));
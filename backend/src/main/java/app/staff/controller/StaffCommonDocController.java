@@ -37,10 +37,17 @@ public class StaffCommonDocController {
             @RequestParam(defaultValue = "ALL") String box,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
             Authentication authentication
     ) {
         try {
-            StaffCommonDocPageRes result = service.search(keyword, box, authentication != null ? authentication.getName() : "", page, size);
+            String username = authentication != null ? authentication.getName() : "";
+            // slice=true skips the count query: page is ignored and nextCursor is passed back as cursor.
+            StaffCommonDocPageRes result = slice
+                    ? service.searchSlice(keyword, box, username, cursor, size, withTotal)
+                    : service.search(keyword, box, username, page, size);
             return ResponseEntity.ok(new ApiResponse<StaffCommonDocPageRes>().ok(result));
         } catch (InvalidDataAccessResourceUsageException e) {
             return ResponseEntity.status(503).body(new ApiResponse<StaffCommonDocPageRes>().error("문서함 DB가 아직 준비되지 않았습니다."));
@@ -11,7 +11,10 @@ public class StaffBoardPageRes {
     private List<StaffBoardPostRes> items;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    // Null in slice mode, which skips the count query.
+    private Long totalElements;
+    private Integer totalPages;
     private boolean hasNext;
+    private String nextCursor;
+    private Long approximateTotal;
 }
@@ -7,6 +7,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
+import java.util.List;
+
 public interface StaffBoardPostRepository extends JpaRepository<StaffBoardPostEntity, Long> {
 
     @Query(value = """
@@ -41,4 +44,56 @@ public interface StaffBoardPostRepository extends JpaRepository<StaffBoardPostEn
               )
             """)
     Page<StaffBoardPostEntity> search(@Param("category") String category, @Param("keyword") String keyword, Pageable pageable);
+
+    // Same filter and order as search, keyset after (cursorRank, cursorCreatedAt, cursorId) and without the count
+    // query; cursorRank -1 reads from the top. pageable only carries the row limit.
+    @Query("""
+            SELECT p
+            FROM StaffBoardPostEntity p
+            WHERE p.isDeleted = 'N'
+              AND UPPER(p.category) = UPPER(:category)
+              AND (
+                :keyword IS NULL OR :keyword = '' OR
+                LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.content, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.location, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.subjectName, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.departmentName, '')) LIKE LOWER(CONCAT('%', :keyword, '%'))
+              )
+              AND (
+                CASE p.postType WHEN '필독' THEN 0 WHEN '공지' THEN 1 ELSE 2 END > :cursorRank OR
+                (
+                  CASE p.postType WHEN '필독' THEN 0 WHEN '공지' THEN 1 ELSE 2 END = :cursorRank AND
+                  (p.createdAt < :cursorCreatedAt OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId))
+                )
+              )
+            ORDER BY
+              CASE p.postType WHEN '필독' THEN 0 WHEN '공지' THEN 1 ELSE 2 END,
+              p.createdAt DESC,
+              p.id DESC
+            """)
+    List<StaffBoardPostEntity> searchSlice(
+            @Param("category") String category,
+            @Param("keyword") String keyword,
+            @Param("cursorRank") int cursorRank,
+            @Param("cursorCreatedAt") Date cursorCreatedAt,
+            @Param("cursorId") long cursorId,
+            Pageable pageable
+    );
+
+    @Query("""
+            SELECT COUNT(p)
+            FROM StaffBoardPostEntity p
+            WHERE p.isDeleted = 'N'
+              AND UPPER(p.category) = UPPER(:category)
+              AND (
+                :keyword IS NULL OR :keyword = '' OR
+                LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.content, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.location, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.subjectName, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(p.departmentName, '')) LIKE LOWER(CONCAT('%', :keyword, '%'))
+              )
+            """)
+    long countSearch(@Param("category") String category, @Param("keyword") String keyword);
 }
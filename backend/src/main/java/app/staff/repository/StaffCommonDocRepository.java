@@ -7,6 +7,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
+import java.util.List;
+
 public interface StaffCommonDocRepository extends JpaRepository<StaffCommonDocEntity, Long> {
 
     @Query(value = """
@@ -64,4 +67,77 @@ public interface StaffCommonDocRepository extends JpaRepository<StaffCommonDocEn
             @Param("deptName") String deptName,
             Pageable pageable
     );
+
+    // Same filter and order as search, keyset after (cursorUpdatedAt, cursorId) and without the count query;
+    // cursorId 0 reads from the top. pageable only carries the row limit.
+    @Query("""
+            SELECT d
+            FROM StaffCommonDocEntity d
+            WHERE d.isDeleted = 'N'
+              AND (
+                :box = 'ALL' OR
+                (:box = 'MINE' AND d.authorId = :username) OR
+                (:box = 'DEPT_RECEIVED' AND UPPER(COALESCE(d.receiverDeptName, '')) = UPPER(:deptName)) OR
+                (:box = 'TO_APPROVE' AND EXISTS (
+                    SELECT 1 FROM StaffCommonDocLineEntity l
+                    WHERE l.docId = d.id AND l.approverId = :username AND l.lineType = 'APPROVAL' AND l.actionStatus = 'PENDING'
+                )) OR
+                (:box = 'REJECTED' AND d.approvalStatus = 'REJECTED' AND (d.authorId = :username OR d.approverId = :username OR UPPER(COALESCE(d.receiverDeptName, '')) = UPPER(:deptName))) OR
+                (:box = 'INBOX' AND UPPER(COALESCE(d.receiverDeptName, '')) = UPPER(:deptName) AND d.approvalStatus = 'APPROVED') OR
+                (:box = 'RETURNED' AND d.authorId = :username AND d.approvalStatus = 'REJECTED')
+              )
+              AND (
+                :keyword IS NULL OR :keyword = '' OR
+                LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(d.content, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(d.category, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(d.ownerName, '')) LIKE LOWER(CONCAT('%', :keyword, '%'))
+              )
+              AND (
+                :cursorId = 0 OR
+                d.updatedAt < :cursorUpdatedAt OR
+                (d.updatedAt = :cursorUpdatedAt AND d.id < :cursorId)
+              )
+            ORDER BY d.updatedAt DESC, d.id DESC
+            """)
+    List<StaffCommonDocEntity> searchSlice(
+            @Param("keyword") String keyword,
+            @Param("box") String box,
+            @Param("username") String username,
+            @Param("deptName") String deptName,
+            @Param("cursorUpdatedAt") Date cursorUpdatedAt,
+            @Param("cursorId") long cursorId,
+            Pageable pageable
+    );
+
+    @Query("""
+            SELECT COUNT(d)
+            FROM StaffCommonDocEntity d
+            WHERE d.isDeleted = 'N'
+              AND (
+                :box = 'ALL' OR
+                (:box = 'MINE' AND d.authorId = :username) OR
+                (:box = 'DEPT_RECEIVED' AND UPPER(COALESCE(d.receiverDeptName, '')) = UPPER(:deptName)) OR
+                (:box = 'TO_APPROVE' AND EXISTS (
+                    SELECT 1 FROM StaffCommonDocLineEntity l
+                    WHERE l.docId = d.id AND l.approverId = :username AND l.lineType = 'APPROVAL' AND l.actionStatus = 'PENDING'
+                )) OR
+                (:box = 'REJECTED' AND d.approvalStatus = 'REJECTED' AND (d.authorId = :username OR d.approverId = :username OR UPPER(COALESCE(d.receiverDeptName, '')) = UPPER(:deptName))) OR
+                (:box = 'INBOX' AND UPPER(COALESCE(d.receiverDeptName, '')) = UPPER(:deptName) AND d.approvalStatus = 'APPROVED') OR
+                (:box = 'RETURNED' AND d.authorId = :username AND d.approvalStatus = 'REJECTED')
+              )
+              AND (
+                :keyword IS NULL OR :keyword = '' OR
+                LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(d.content, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(d.category, '')) LIKE LOWER(CONCAT('%', :keyword, '%')) OR
+                LOWER(COALESCE(d.ownerName, '')) LIKE LOWER(CONCAT('%', :keyword, '%'))
+              )
+            """)
+    long countSearch(
+            @Param("keyword") String keyword,
+            @Param("box") String box,
+            @Param("username") String username,
+            @Param("deptName") String deptName
+    );
 }
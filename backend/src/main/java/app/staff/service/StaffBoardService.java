@@ -7,6 +7,7 @@ import app.staff.dto.StaffBoardPostRes;
 
 public interface StaffBoardService {
     StaffBoardPageRes search(String category, String keyword, int page, int size);
+    StaffBoardPageRes searchSlice(String category, String keyword, String cursor, int size, boolean withTotal);
     StaffBoardPostRes findOne(String category, Long id);
     StaffBoardPostRes create(String category, StaffBoardPostReq req);
     StaffBoardPostRes update(String category, Long id, StaffBoardPostReq req);
@@ -1,5 +1,6 @@
 package app.staff.service;
 
+import app.common.cache.ApproximateCountCache;
 import app.staff.dto.StaffBoardDeleteReq;
 import app.staff.dto.StaffBoardPageRes;
 import app.staff.dto.StaffBoardPostReq;
@@ -15,9 +16,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
 @Service
@@ -26,6 +30,7 @@ public class StaffBoardServiceImpl implements StaffBoardService {
 
     private final StaffBoardPostRepository repository;
     private final StaffRepository staffRepository;
+    private final ApproximateCountCache countCache;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.KOREA);
 
     @Override
@@ -43,6 +48,42 @@ public class StaffBoardServiceImpl implements StaffBoardService {
                 .build();
     }
 
+    @Override
+    public StaffBoardPageRes searchSlice(String category, String keyword, String cursor, int size, boolean withTotal) {
+        int normalizedSize = Math.min(Math.max(size, 1), 100);
+        String normalizedCategory = normalizeCategory(category);
+        String normalizedKeyword = keyword == null ? "" : keyword.trim();
+        int cursorRank = -1;
+        Date cursorCreatedAt = new Date(0L);
+        long cursorId = 0L;
+        if (StringUtils.hasText(cursor)) {
+            long[] parts = decodeCursor(cursor.trim());
+            cursorRank = (int) parts[0];
+            cursorCreatedAt = new Date(parts[1]);
+            cursorId = parts[2];
+        }
+
+        // One extra row tells whether another page exists without a count query.
+        List<StaffBoardPostEntity> rows = repository.searchSlice(normalizedCategory, normalizedKeyword,
+                cursorRank, cursorCreatedAt, cursorId, PageRequest.of(0, normalizedSize + 1));
+        boolean hasNext = rows.size() > normalizedSize;
+        if (hasNext) {
+            rows = rows.subList(0, normalizedSize);
+        }
+        Long approximateTotal = withTotal
+                ? countCache.get("staff-board|" + normalizedCategory + "|" + normalizedKeyword,
+                        () -> repository.countSearch(normalizedCategory, normalizedKeyword))
+                : null;
+        return StaffBoardPageRes.builder()
+                .items(rows.stream().map(this::toRes).toList())
+                .page(0)
+                .size(normalizedSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? encodeCursor(rows.get(rows.size() - 1)) : null)
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+
     @Override
     public StaffBoardPostRes findOne(String category, Long id) {
         return toRes(findActive(category, id));
@@ -164,6 +205,31 @@ public class StaffBoardServiceImpl implements StaffBoardService {
         return t;
     }
 
+    // Same rank as the CASE in StaffBoardPostRepository: 필독, 공지, then the rest.
+    private int typeRank(String postType) {
+        if ("필독".equals(postType)) return 0;
+        if ("공지".equals(postType)) return 1;
+        return 2;
+    }
+
+    private String encodeCursor(StaffBoardPostEntity last) {
+        String raw = typeRank(last.getPostType()) + "," + last.getCreatedAt().getTime() + "," + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+            }
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+        }
+    }
+
     private String trimOrNull(String value) {
         if (!StringUtils.hasText(value)) return null;
         return value.trim();
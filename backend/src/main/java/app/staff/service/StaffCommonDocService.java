@@ -7,6 +7,7 @@ import app.staff.dto.StaffCommonDocRes;
 
 public interface StaffCommonDocService {
     StaffCommonDocPageRes search(String keyword, String box, String username, int page, int size);
+    StaffCommonDocPageRes searchSlice(String keyword, String box, String username, String cursor, int size, boolean withTotal);
     StaffCommonDocRes findOne(Long id);
     StaffCommonDocRes create(StaffCommonDocReq req);
     StaffCommonDocRes update(Long id, StaffCommonDocReq req);
@@ -1,5 +1,6 @@
 package app.staff.service;
 
+import app.common.cache.ApproximateCountCache;
 import app.staff.dto.StaffCommonDocDeleteReq;
 import app.staff.dto.StaffCommonDocLineRes;
 import app.staff.dto.StaffCommonDocPageRes;
@@ -20,9 +21,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -35,6 +38,7 @@ public class StaffCommonDocServiceImpl implements StaffCommonDocService {
     private final StaffCommonDocLineRepository lineRepository;
     private final StaffRepository staffRepository;
     private final DepartmentRepository departmentRepository;
+    private final ApproximateCountCache countCache;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.KOREA);
 
     @Override
@@ -55,6 +59,43 @@ public class StaffCommonDocServiceImpl implements StaffCommonDocService {
                 .build();
     }
 
+    @Override
+    public StaffCommonDocPageRes searchSlice(String keyword, String box, String username, String cursor, int size, boolean withTotal) {
+        int normalizedSize = Math.min(Math.max(size, 1), 100);
+        String normalizedKeyword = keyword == null ? "" : keyword.trim();
+        String normalizedBox = normalizeBox(box);
+        String normalizedUser = trimOrEmpty(username);
+        StaffEntity me = StringUtils.hasText(normalizedUser) ? staffRepository.findByUsernameNormalized(normalizedUser).orElse(null) : null;
+        String deptName = me != null && me.getDeptId() != null ? resolveDeptName(me.getDeptId()) : "";
+        Date cursorUpdatedAt = new Date(0L);
+        long cursorId = 0L;
+        if (StringUtils.hasText(cursor)) {
+            long[] parts = decodeCursor(cursor.trim());
+            cursorUpdatedAt = new Date(parts[0]);
+            cursorId = parts[1];
+        }
+
+        // One extra row tells whether another page exists without a count query.
+        List<StaffCommonDocEntity> rows = repository.searchSlice(normalizedKeyword, normalizedBox, normalizedUser, deptName,
+                cursorUpdatedAt, cursorId, PageRequest.of(0, normalizedSize + 1));
+        boolean hasNext = rows.size() > normalizedSize;
+        if (hasNext) {
+            rows = rows.subList(0, normalizedSize);
+        }
+        Long approximateTotal = withTotal
+                ? countCache.get(String.join("|", "staff-common-doc", normalizedBox, normalizedUser, deptName, normalizedKeyword),
+                        () -> repository.countSearch(normalizedKeyword, normalizedBox, normalizedUser, deptName))
+                : null;
+        return StaffCommonDocPageRes.builder()
+                .items(rows.stream().map(this::toRes).toList())
+                .page(0)
+                .size(normalizedSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? encodeCursor(rows.get(rows.size() - 1)) : null)
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+
     @Override
     public StaffCommonDocRes findOne(Long id) {
         return toRes(findActive(id));
@@ -300,6 +341,25 @@ public class StaffCommonDocServiceImpl implements StaffCommonDocService {
         return value.trim();
     }
 
+    private String encodeCursor(StaffCommonDocEntity last) {
+        long updatedAt = last.getUpdatedAt() == null ? 0L : last.getUpdatedAt().getTime();
+        String raw = updatedAt + "," + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+            }
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+        }
+    }
+
     private String trimOrEmpty(String value) {
         return value == null ? "" : value.trim();
     }
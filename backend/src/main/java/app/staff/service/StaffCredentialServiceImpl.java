@@ -75,7 +75,7 @@ public class StaffCredentialServiceImpl implements StaffCredentialService {
     }
 
     @Override
-    @Cacheable(cacheNames = CACHE_CREDENTIAL_LIST, key = "'list:' + #staffId + ':' + #credType + ':' + #status")
+    @Cacheable(cacheNames = CACHE_CREDENTIAL_LIST, key = "'list:' + #staffId + ':' + #credType + ':' + #status", sync = true)
     public List<StaffCredentialDTO> getCredentials(Integer staffId, String credType, String status) {
         if (staffId == null) {
             throw new IllegalArgumentException("Staff ID is required");
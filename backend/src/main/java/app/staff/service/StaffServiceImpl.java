@@ -26,6 +26,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -82,52 +83,34 @@ public class StaffServiceImpl implements StaffService {
     }
 
     @Override
-    @Cacheable(cacheNames = CACHE_STAFF_LIST, key = "'list:' + #activeOnly")
+    @Cacheable(cacheNames = CACHE_STAFF_LIST, key = "'list:' + #activeOnly", sync = true)
     public List<StaffListItem> selectStaffList(boolean activeOnly) {
-        return staffRepository.findStaffList(activeOnly)
-                .stream()
-                .map(this::toListItem)
-                .collect(Collectors.toList());
+        return toListItems(staffRepository.findStaffList(activeOnly));
     }
 
     @Override
     public List<StaffListItem> searchByName(boolean activeOnly, String value) {
-        return staffRepository.searchByName(activeOnly, value)
-                .stream()
-                .map(this::toListItem)
-                .collect(Collectors.toList());
+        return toListItems(staffRepository.searchByName(activeOnly, value));
     }
 
     @Override
     public List<StaffListItem> searchByDepartmentName(boolean activeOnly, String value) {
-        return staffRepository.searchByDepartmentName(activeOnly, value)
-                .stream()
-                .map(this::toListItem)
-                .collect(Collectors.toList());
+        return toListItems(staffRepository.searchByDepartmentName(activeOnly, value));
     }
 
     @Override
     public List<StaffListItem> searchByPositionTitle(boolean activeOnly, String value) {
-        return staffRepository.searchByPositionTitle(activeOnly, value)
-                .stream()
-                .map(this::toListItem)
-                .collect(Collectors.toList());
+        return toListItems(staffRepository.searchByPositionTitle(activeOnly, value));
     }
 
     @Override
     public List<StaffListItem> searchByStaffType(boolean activeOnly, String value) {
-        return staffRepository.searchByStaffType(activeOnly, value)
-                .stream()
-                .map(this::toListItem)
-                .collect(Collectors.toList());
+        return toListItems(staffRepository.searchByStaffType(activeOnly, value));
     }
 
     @Override
     public List<StaffListItem> searchByStaffId(boolean activeOnly, String value) {
-        return staffRepository.searchByStaffId(activeOnly, value)
-                .stream()
-                .map(this::toListItem)
-                .collect(Collectors.toList());
+        return toListItems(staffRepository.searchByStaffId(activeOnly, value));
     }
 
     @Override
@@ -412,7 +395,15 @@ public class StaffServiceImpl implements StaffService {
         saveHistory(staffId, "PASSWORD_CHANGE", "PASSWORD_HASH", null, "UPDATED", "Admin reset approved", changedBy);
     }
 
-    private StaffListItem toListItem(StaffRepository.StaffListView view) {
+    private List<StaffListItem> toListItems(List<StaffRepository.StaffListView> views) {
+        Map<String, String> photoUrls = staffStorageService.getPresignedUrls(
+                views.stream().map(StaffRepository.StaffListView::getPhotoKey).collect(Collectors.toList()));
+        return views.stream()
+                .map(view -> toListItem(view, photoUrls.get(view.getPhotoKey())))
+                .collect(Collectors.toList());
+    }
+
+    private StaffListItem toListItem(StaffRepository.StaffListView view, String photoUrl) {
         StaffListItem item = new StaffListItem();
         item.setId(view.getId());
         item.setUsername(view.getUsername());
@@ -428,7 +419,7 @@ public class StaffServiceImpl implements StaffService {
         item.setPositionId(view.getPositionId());
         item.setDepartmentName(view.getDepartmentName());
         item.setPositionName(view.getPositionName());
-        item.setPhotoUrl(staffStorageService.getPresignedUrl(view.getPhotoKey()));
+        item.setPhotoUrl(photoUrl);
         return item;
     }
 
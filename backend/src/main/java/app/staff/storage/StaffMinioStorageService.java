@@ -1,27 +1,26 @@
 package app.staff.storage;
 
 import app.common.storage.MinioProperties;
+import app.common.storage.PresignedUrlSigner;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
-import io.minio.GetPresignedObjectUrlArgs;
-import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.util.StringUtils;
 
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @ConditionalOnProperty(prefix = "app.storage", name = "type", havingValue = "minio")
 public class StaffMinioStorageService implements StaffStorageService {
 
-    private static final String MINIO_REGION = "us-east-1";
-
     private final MinioClient minioClient;
     private final MinioProperties minioProps;
+    private final PresignedUrlSigner presignedUrlSigner;
 
     @Override
     public String uploadProfileImage(String objectKey, MultipartFile file) {
@@ -42,28 +41,11 @@ public class StaffMinioStorageService implements StaffStorageService {
 
     @Override
     public String getPresignedUrl(String objectKey) {
-        if (!StringUtils.hasText(objectKey)) {
-            return null;
-        }
-        try {
-            MinioClient presignClient = minioClient;
-            if (StringUtils.hasText(minioProps.getPublicUrl())) {
-                presignClient = MinioClient.builder()
-                        .endpoint(minioProps.getPublicUrl())
-                        .credentials(minioProps.getAccessKey(), minioProps.getSecretKey())
-                        .build();
-            }
+        return presignedUrlSigner.sign(minioProps.getBucketStaff(), objectKey);
+    }
 
-            return presignClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .method(Method.GET)
-                            .region(MINIO_REGION)
-                            .bucket(minioProps.getBucketStaff())
-                            .object(objectKey)
-                            .build()
-            );
-        } catch (Exception err) {
-            throw new IllegalStateException("Failed to get presigned url", err);
-        }
+    @Override
+    public Map<String, String> getPresignedUrls(Collection<String> objectKeys) {
+        return presignedUrlSigner.signAll(minioProps.getBucketStaff(), objectKeys);
     }
 }
@@ -2,8 +2,14 @@ package app.staff.storage;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface StaffStorageService {
     String uploadProfileImage(String objectKey, MultipartFile file);
 
     String getPresignedUrl(String objectKey);
+
+    // Object key -> URL for the non-blank keys; one call per list instead of one per row.
+    Map<String, String> getPresignedUrls(Collection<String> objectKeys);
 }
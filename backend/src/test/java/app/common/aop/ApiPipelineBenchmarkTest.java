@@ -0,0 +1,199 @@
+package app.common.aop;
+
+import app.common.audit.AuditWriter;
+import app.common.cache.ApiCacheProperties;
+import app.common.cache.ApiResponseCache;
+import app.common.metrics.ApiMetricsRegistry;
+import app.common.metrics.RouteMetrics;
+import app.common.ratelimit.RateLimitProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Per-call cost of the pipeline against the five separate around-advices it replaced, each of which
+ * resolved the request from RequestContextHolder and re-derived method, route and masked params.
+ * Run with ./gradlew test -Pbenchmark.
+ */
+@Tag("benchmark")
+class ApiPipelineBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final String URI = "/api/visits/page";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private MockHttpServletRequest request;
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        request = new MockHttpServletRequest("GET", URI);
+        request.setRemoteAddr("10.0.0.1");
+        request.setParameter("deptCode", "IM");
+        request.setParameter("patientName", "홍길동");
+        request.setParameter("size", "20");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // stubOnly: a million recorded invocations would dominate the measurement.
+        joinPoint = mock(ProceedingJoinPoint.class, withSettings().stubOnly());
+        Signature signature = mock(Signature.class, withSettings().stubOnly());
+        when(signature.getDeclaringTypeName()).thenReturn("app.reception.controller.ReceptionController");
+        when(signature.getName()).thenReturn("findVisitPage");
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn("page");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void pipelineAgainstSeparateAspects() throws Throwable {
+        List<ApiPipelineStage> stages = pipelineStages();
+        ApiMetricsRegistry legacyMetrics = new ApiMetricsRegistry();
+
+        for (int i = 0; i < WARMUP; i++) {
+            runPipeline(stages);
+            runSeparateAspects(legacyMetrics);
+        }
+
+        long pipelineNanos = 0;
+        long legacyNanos = 0;
+        // Alternate in rounds so JIT and GC noise hits both sides alike.
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                runPipeline(stages);
+            }
+            pipelineNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                runSeparateAspects(legacyMetrics);
+            }
+            legacyNanos += System.nanoTime() - start;
+        }
+
+        double pipelinePerCall = (double) pipelineNanos / ITERATIONS;
+        double legacyPerCall = (double) legacyNanos / ITERATIONS;
+        System.out.printf("[BENCH] api pipeline: %.0f ns/call, separate aspects: %.0f ns/call (%.2fx)%n",
+                pipelinePerCall, legacyPerCall, legacyPerCall / pipelinePerCall);
+
+        // Loose bound so a slow CI box does not fail it; the printed numbers are the result.
+        assertTrue(pipelinePerCall < 20_000, "pipeline overhead " + pipelinePerCall + " ns/call");
+    }
+
+    private void runPipeline(List<ApiPipelineStage> stages) throws Throwable {
+        HttpServletRequest current = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        Object pattern = current.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ApiRequestContext context = new ApiRequestContext(joinPoint, current, pattern.toString(), "/api/visits");
+        new ApiPipelineChain(stages).proceed(context);
+    }
+
+    // Timing, logging, rate limit, audit and cache as they ran before: nested, each resolving the request itself.
+    private Object runSeparateAspects(ApiMetricsRegistry metrics) throws Throwable {
+        return timingAspect(metrics);
+    }
+
+    private Object timingAspect(ApiMetricsRegistry metrics) throws Throwable {
+        HttpServletRequest current = resolveRequest();
+        RouteMetrics route = metrics.route(current.getMethod(), resolveRoute(current));
+        route.begin();
+        long start = System.nanoTime();
+        try {
+            return loggingAspect();
+        } finally {
+            route.end(System.nanoTime() - start, false);
+        }
+    }
+
+    private Object loggingAspect() throws Throwable {
+        joinPoint.getSignature().getDeclaringTypeName();
+        joinPoint.getSignature().getName();
+        return rateLimitAspect();
+    }
+
+    private Object rateLimitAspect() throws Throwable {
+        HttpServletRequest current = resolveRequest();
+        // Same rule as the pipeline run: writes under /api/** only, so a GET passes after the match.
+        if (!"GET".equalsIgnoreCase(current.getMethod()) && pathMatcher.match("/api/**", current.getRequestURI())) {
+            current.getRemoteAddr();
+        }
+        return auditAspect();
+    }
+
+    private Object auditAspect() throws Throwable {
+        HttpServletRequest current = resolveRequest();
+        if ("GET".equalsIgnoreCase(current.getMethod())) {
+            return cacheAspect();
+        }
+        PiiMaskingUtil.toMaskedQueryString(current.getParameterMap());
+        return cacheAspect();
+    }
+
+    private Object cacheAspect() throws Throwable {
+        HttpServletRequest current = resolveRequest();
+        // Excluded path, as in the pipeline run: only the request resolution and the path check are paid.
+        if (pathMatcher.match(URI, current.getRequestURI())) {
+            return joinPoint.proceed();
+        }
+        throw new IllegalStateException("benchmark path must be excluded from the cache");
+    }
+
+    private HttpServletRequest resolveRequest() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        return ((ServletRequestAttributes) attrs).getRequest();
+    }
+
+    private String resolveRoute(HttpServletRequest current) {
+        Object pattern = current.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : current.getRequestURI();
+    }
+
+    private List<ApiPipelineStage> pipelineStages() {
+        ApiTimingStage timing = new ApiTimingStage(new ApiMetricsRegistry());
+        ReflectionTestUtils.setField(timing, "slowThresholdMs", 1000L);
+
+        RateLimitProperties.Bucket bucket = new RateLimitProperties.Bucket();
+        bucket.setCapacity(1_000);
+        bucket.setRefillPerSecond(1_000);
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("writes");
+        rule.setPaths(List.of("/api/**"));
+        rule.setMethods(List.of("POST", "PUT", "DELETE"));
+        rule.setPerIp(bucket);
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setRules(List.of(rule));
+
+        ApiCacheProperties cacheProperties = new ApiCacheProperties();
+        cacheProperties.setExcludedPaths(List.of(URI));
+
+        return List.of(
+                timing,
+                new ApiLoggingStage(),
+                new ApiRateLimitStage(rateLimitProperties, (key, limit) -> true),
+                new ApiAuditStage(mock(AuditWriter.class, withSettings().stubOnly())),
+                new ApiCacheStage(new ApiResponseCache(cacheProperties)));
+    }
+}
@@ -0,0 +1,206 @@
+package app.common.aop;
+
+import app.common.audit.AuditEvent;
+import app.common.audit.AuditWriter;
+import app.common.cache.ApiCacheProperties;
+import app.common.cache.ApiResponseCache;
+import app.common.metrics.ApiMetricsRegistry;
+import app.common.ratelimit.RateLimitProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApiPipelineTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void stagesAreOrderedTimingLoggingRateLimitAuditCache() {
+        List<Class<?>> stages = new ArrayList<>(List.of(
+                ApiCacheStage.class, ApiAuditStage.class, ApiRateLimitStage.class, ApiLoggingStage.class, ApiTimingStage.class));
+        stages.sort(Comparator.comparingInt(type -> OrderUtils.getOrder(type, Ordered.LOWEST_PRECEDENCE)));
+
+        assertEquals(List.of(ApiTimingStage.class, ApiLoggingStage.class, ApiRateLimitStage.class,
+                ApiAuditStage.class, ApiCacheStage.class), stages);
+        assertEquals(List.of(100, 200, 300, 400, 500), stages.stream()
+                .map(type -> OrderUtils.getOrder(type, Ordered.LOWEST_PRECEDENCE))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void chainRunsStagesInOrderThenController() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("result");
+
+        Object result = new ApiPipelineChain(List.of(recording("a"), recording("b")))
+                .proceed(context(joinPoint, "GET", "/api/visits"));
+
+        assertEquals("result", result);
+        assertEquals(List.of("a>", "b>", "b<", "a<"), calls);
+        verify(joinPoint).proceed();
+    }
+
+    @Test
+    void stageThatReturnsSkipsLaterStagesAndController() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("result");
+        ApiPipelineStage shortCircuit = (context, chain) -> "short";
+
+        Object result = new ApiPipelineChain(List.of(recording("a"), shortCircuit, recording("b")))
+                .proceed(context(joinPoint, "GET", "/api/visits"));
+
+        assertEquals("short", result);
+        assertEquals(List.of("a>", "a<"), calls);
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    void rateLimitRejectionSkipsAuditCacheAndController() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("result");
+        ApiMetricsRegistry metrics = new ApiMetricsRegistry();
+        ApiPipelineStage rateLimit = new ApiRateLimitStage(rateLimitProperties(), (key, bucket) -> false);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
+                new ApiPipelineChain(List.of(timing(metrics), new ApiLoggingStage(), rateLimit, recording("audit"), recording("cache")))
+                        .proceed(context(joinPoint, "POST", "/api/visits")));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        assertTrue(calls.isEmpty());
+        verify(joinPoint, never()).proceed();
+        // Timing still saw the rejected call, but a 429 is not a server error.
+        assertEquals(1, metrics.route("POST", "/api/visits").getCount());
+        assertEquals(0, metrics.route("POST", "/api/visits").getErrors());
+    }
+
+    @Test
+    void timingCountsOnlyServerErrorsAmongThrownExceptions() {
+        ApiMetricsRegistry metrics = new ApiMetricsRegistry();
+        List<Throwable> thrown = List.of(
+                new IllegalArgumentException("bad input"),
+                new ResponseStatusException(HttpStatus.CONFLICT),
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE),
+                new IllegalStateException("broken"));
+        for (Throwable ex : thrown) {
+            ApiPipelineStage failing = (context, chain) -> {
+                throw ex;
+            };
+            assertThrows(ex.getClass(), () -> new ApiPipelineChain(List.of(timing(metrics), failing))
+                    .proceed(context(joinPoint("result"), "GET", "/api/visits")));
+        }
+
+        assertEquals(4, metrics.route("GET", "/api/visits").getCount());
+        assertEquals(2, metrics.route("GET", "/api/visits").getErrors());
+    }
+
+    @Test
+    void rateLimitBucketsAreKeyedByClientIp() throws Throwable {
+        List<String> keys = new ArrayList<>();
+        ApiPipelineStage rateLimit = new ApiRateLimitStage(rateLimitProperties(), (key, bucket) -> keys.add(key));
+
+        ApiRequestContext first = context(joinPoint("a"), "POST", "/api/visits");
+        ApiRequestContext second = context(joinPoint("b"), "POST", "/api/visits");
+        ((MockHttpServletRequest) second.getRequest()).setRemoteAddr("10.0.0.2");
+        // Only the address the RemoteIpValve resolved counts; a forged header does not pick the bucket.
+        ((MockHttpServletRequest) second.getRequest()).addHeader("X-Forwarded-For", "10.0.0.1");
+        new ApiPipelineChain(List.of(rateLimit)).proceed(first);
+        new ApiPipelineChain(List.of(rateLimit)).proceed(second);
+
+        assertEquals(List.of("writes|ip:10.0.0.1", "writes|ip:10.0.0.2"), keys);
+    }
+
+    @Test
+    void cacheHitSkipsController() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("rows");
+        ApiCacheStage cache = new ApiCacheStage(new ApiResponseCache(new ApiCacheProperties()));
+
+        Object first = new ApiPipelineChain(List.of(recording("audit"), cache)).proceed(context(joinPoint, "GET", "/api/visits"));
+        Object second = new ApiPipelineChain(List.of(recording("audit"), cache)).proceed(context(joinPoint, "GET", "/api/visits"));
+
+        assertSame(first, second);
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void writeIsAuditedAndEvictsCachedReads() throws Throwable {
+        ProceedingJoinPoint read = joinPoint("rows");
+        ProceedingJoinPoint write = joinPoint("saved");
+        AuditWriter auditWriter = mock(AuditWriter.class);
+        ApiCacheStage cache = new ApiCacheStage(new ApiResponseCache(new ApiCacheProperties()));
+        ApiAuditStage audit = new ApiAuditStage(auditWriter);
+
+        new ApiPipelineChain(List.of(audit, cache)).proceed(context(read, "GET", "/api/visits"));
+        new ApiPipelineChain(List.of(audit, cache)).proceed(context(write, "POST", "/api/visits"));
+        new ApiPipelineChain(List.of(audit, cache)).proceed(context(read, "GET", "/api/visits"));
+
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditWriter, times(1)).submit(event.capture());
+        assertEquals("POST", event.getValue().getMethod());
+        assertEquals(200, event.getValue().getStatus());
+        verify(read, times(2)).proceed();
+    }
+
+    private ApiPipelineStage recording(String name) {
+        return (context, chain) -> {
+            calls.add(name + ">");
+            Object result = chain.proceed(context);
+            calls.add(name + "<");
+            return result;
+        };
+    }
+
+    private ApiTimingStage timing(ApiMetricsRegistry metrics) {
+        ApiTimingStage stage = new ApiTimingStage(metrics);
+        ReflectionTestUtils.setField(stage, "slowThresholdMs", 1000L);
+        return stage;
+    }
+
+    private RateLimitProperties rateLimitProperties() {
+        RateLimitProperties.Bucket bucket = new RateLimitProperties.Bucket();
+        bucket.setCapacity(1);
+        bucket.setRefillPerSecond(1);
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("writes");
+        rule.setPaths(List.of("/api/**"));
+        rule.setPerIp(bucket);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        return properties;
+    }
+
+    static ProceedingJoinPoint joinPoint(Object result) throws Throwable {
+        Signature signature = mock(Signature.class);
+        when(signature.getDeclaringTypeName()).thenReturn("app.test.TestController");
+        when(signature.getName()).thenReturn("handle");
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+
+    static ApiRequestContext context(ProceedingJoinPoint joinPoint, String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return new ApiRequestContext(joinPoint, request, uri, "/api/visits");
+    }
+}
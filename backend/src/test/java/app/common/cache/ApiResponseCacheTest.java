@@ -0,0 +1,80 @@
+package app.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ApiResponseCacheTest {
+
+    @Test
+    void readThatRacedAWriteIsNotCached() throws Throwable {
+        ApiResponseCache cache = new ApiResponseCache(new ApiCacheProperties());
+
+        Object result = cache.getOrLoad("/api/visits", "k", () -> {
+            // The write commits and evicts while this read is still loading.
+            cache.invalidate("/api/visits");
+            return List.of("before-write");
+        });
+
+        assertEquals(List.of("before-write"), result);
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    void parentAndDependencyEvictionsAlsoCount() throws Throwable {
+        ApiCacheProperties properties = new ApiCacheProperties();
+        properties.getDependencies().put("/api/patients", List.of("/api/visits"));
+        ApiResponseCache cache = new ApiResponseCache(properties);
+
+        cache.getOrLoad("/api/visits/beds", "beds", () -> {
+            cache.invalidate("/api/visits");
+            return "beds";
+        });
+        cache.getOrLoad("/api/visits", "visits", () -> {
+            cache.invalidate("/api/patients");
+            return "visits";
+        });
+
+        assertNull(cache.get("beds"));
+        assertNull(cache.get("visits"));
+    }
+
+    @Test
+    void unrelatedEvictionKeepsTheLoad() throws Throwable {
+        ApiResponseCache cache = new ApiResponseCache(new ApiCacheProperties());
+
+        cache.getOrLoad("/api/visits", "k", () -> {
+            cache.invalidate("/api/menus");
+            return "rows";
+        });
+
+        assertEquals("rows", cache.get("k"));
+    }
+
+    @Test
+    void evictionIsBroadcastAndRemoteEvictionApplied() throws Throwable {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        CacheInvalidationBus bus = new CacheInvalidationBus(redisTemplate, "cache:invalidate");
+        ApiResponseCache cache = new ApiResponseCache(new ApiCacheProperties(), bus);
+        cache.put("/api/visits", "k", "rows");
+
+        cache.invalidate("/api/menus");
+        verify(redisTemplate).convertAndSend(eq("cache:invalidate"),
+                endsWith("|api-response|/api/menus"));
+        assertEquals("rows", cache.get("k"));
+
+        bus.onMessage(new DefaultMessage("cache:invalidate".getBytes(StandardCharsets.UTF_8),
+                "other-node|api-response|/api/visits".getBytes(StandardCharsets.UTF_8)), null);
+        assertNull(cache.get("k"));
+    }
+}
@@ -0,0 +1,86 @@
+package app.common.cache;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Value size and encode / decode time of the binary serializer against the JSON serializer for the caches
+ * switched to binary in application.properties (STAFF_LIST, CREDENTIAL_*).
+ * Run with ./gradlew test -Pbenchmark.
+ */
+@Tag("benchmark")
+class BinaryRedisSerializerBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    void staffList() {
+        List<?> value = CacheSerializerFixtures.staffList(300);
+        compare("STAFF_LIST x300", value,
+                new BinaryRedisSerializer(CacheSerializerFixtures.STAFF_LIST_TYPE, 1024));
+    }
+
+    @Test
+    void credentialList() {
+        List<?> value = CacheSerializerFixtures.credentialList(300);
+        compare("CREDENTIAL_LIST x300", value,
+                new BinaryRedisSerializer(CacheSerializerFixtures.CREDENTIAL_LIST_TYPE, 1024));
+    }
+
+    private void compare(String name, Object value, BinaryRedisSerializer binary) {
+        GenericJackson2JsonRedisSerializer json = CacheSerializerFixtures.jsonSerializer();
+        Result jsonResult = measure(json, value);
+        Result binaryResult = measure(binary, value);
+
+        System.out.printf("[BENCH] %s json: %d bytes, encode %.1f us, decode %.1f us%n",
+                name, jsonResult.bytes, jsonResult.encodeMicros, jsonResult.decodeMicros);
+        System.out.printf("[BENCH] %s binary: %d bytes (%.0f%%), encode %.1f us, decode %.1f us%n",
+                name, binaryResult.bytes, 100.0 * binaryResult.bytes / jsonResult.bytes,
+                binaryResult.encodeMicros, binaryResult.decodeMicros);
+
+        assertTrue(binaryResult.bytes < jsonResult.bytes);
+        // Decode runs on every L2 hit; deflate must not make it slower than reading the JSON.
+        assertTrue(binaryResult.decodeMicros < jsonResult.decodeMicros * 1.5,
+                "binary decode " + binaryResult.decodeMicros + " us vs json " + jsonResult.decodeMicros + " us");
+    }
+
+    private Result measure(RedisSerializer<Object> serializer, Object value) {
+        byte[] bytes = serializer.serialize(value);
+        for (int i = 0; i < WARMUP; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = serializer.serialize(value);
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(bytes);
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        return new Result(bytes.length, encodeNanos / 1_000.0 / ITERATIONS, decodeNanos / 1_000.0 / ITERATIONS);
+    }
+
+    private static final class Result {
+        private final int bytes;
+        private final double encodeMicros;
+        private final double decodeMicros;
+
+        private Result(int bytes, double encodeMicros, double decodeMicros) {
+            this.bytes = bytes;
+            this.encodeMicros = encodeMicros;
+            this.decodeMicros = decodeMicros;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package app.common.cache;
+
+import app.staff.dto.StaffCredentialDTO;
+import app.staff.dto.StaffListItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryRedisSerializerTest {
+
+    private static final byte PLAIN = (byte) 0xB0;
+    private static final byte DEFLATED = (byte) 0xB1;
+
+    private final BinaryRedisSerializer staffSerializer =
+            new BinaryRedisSerializer(CacheSerializerFixtures.STAFF_LIST_TYPE, 1024);
+    private final BinaryRedisSerializer credentialSerializer =
+            new BinaryRedisSerializer(CacheSerializerFixtures.CREDENTIAL_LIST_TYPE, 1024);
+
+    @Test
+    void smallValueRoundTripsPlain() {
+        List<StaffListItem> value = CacheSerializerFixtures.staffList(2);
+
+        byte[] bytes = staffSerializer.serialize(value);
+
+        assertEquals(PLAIN, bytes[0]);
+        assertEquals(value, staffSerializer.deserialize(bytes));
+    }
+
+    @Test
+    void largeValueRoundTripsDeflated() {
+        List<StaffListItem> value = CacheSerializerFixtures.staffList(500);
+
+        byte[] bytes = staffSerializer.serialize(value);
+
+        assertEquals(DEFLATED, bytes[0]);
+        assertEquals(value, staffSerializer.deserialize(bytes));
+    }
+
+    @Test
+    void credentialDatesRoundTrip() {
+        List<StaffCredentialDTO> value = CacheSerializerFixtures.credentialList(300);
+
+        assertEquals(value, credentialSerializer.deserialize(credentialSerializer.serialize(value)));
+    }
+
+    @Test
+    void deflatedOnlyWhenSmallerThanPlain() {
+        Random random = new Random(42);
+        List<StaffListItem> value = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            StaffListItem item = new StaffListItem();
+            item.setId(i);
+            byte[] noise = new byte[96];
+            random.nextBytes(noise);
+            item.setBio(Base64.getEncoder().encodeToString(noise));
+            value.add(item);
+        }
+        byte[] plain = new BinaryRedisSerializer(CacheSerializerFixtures.STAFF_LIST_TYPE, 0).serialize(value);
+        BinaryRedisSerializer serializer = new BinaryRedisSerializer(CacheSerializerFixtures.STAFF_LIST_TYPE, 64);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertTrue(bytes.length <= plain.length);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void compressionDisabledWithZeroThreshold() {
+        BinaryRedisSerializer serializer = new BinaryRedisSerializer(CacheSerializerFixtures.STAFF_LIST_TYPE, 0);
+
+        byte[] bytes = serializer.serialize(CacheSerializerFixtures.staffList(500));
+
+        assertEquals(PLAIN, bytes[0]);
+    }
+
+    @Test
+    void jsonLeftInRedisReadsAsMiss() {
+        byte[] json = CacheSerializerFixtures.jsonSerializer().serialize(CacheSerializerFixtures.staffList(5));
+
+        assertNull(staffSerializer.deserialize(json));
+    }
+
+    @Test
+    void nullAndEmptyReadAsMiss() {
+        assertEquals(0, staffSerializer.serialize(null).length);
+        assertNull(staffSerializer.deserialize(null));
+        assertNull(staffSerializer.deserialize(new byte[0]));
+        assertNull(staffSerializer.deserialize(new byte[]{PLAIN}));
+    }
+
+    @Test
+    void binaryIsSmallerThanJsonForTheSwitchedCaches() {
+        List<StaffListItem> staff = CacheSerializerFixtures.staffList(1000);
+        List<StaffCredentialDTO> credentials = CacheSerializerFixtures.credentialList(1000);
+
+        int staffJson = CacheSerializerFixtures.jsonSerializer().serialize(staff).length;
+        int credentialJson = CacheSerializerFixtures.jsonSerializer().serialize(credentials).length;
+
+        assertTrue(staffSerializer.serialize(staff).length < staffJson / 2,
+                "STAFF_LIST binary should be under half the JSON size");
+        assertTrue(credentialSerializer.serialize(credentials).length < credentialJson / 2,
+                "CREDENTIAL_* binary should be under half the JSON size");
+    }
+}
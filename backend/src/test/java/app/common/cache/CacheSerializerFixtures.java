@@ -0,0 +1,87 @@
+package app.common.cache;
+
+import app.staff.dto.StaffCredentialDTO;
+import app.staff.dto.StaffListItem;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Sample STAFF_LIST / CREDENTIAL_* values and the JSON serializer RedisConfig uses for every other cache.
+final class CacheSerializerFixtures {
+
+    static final String STAFF_LIST_TYPE = "java.util.List<app.staff.dto.StaffListItem>";
+    static final String CREDENTIAL_LIST_TYPE = "java.util.List<app.staff.dto.StaffCredentialDTO>";
+
+    private static final String[] DEPARTMENTS = {"내과", "외과", "소아청소년과", "영상의학과", "응급의학과"};
+    private static final String[] POSITIONS = {"전문의", "전공의", "간호사", "방사선사", "행정"};
+
+    private CacheSerializerFixtures() {
+    }
+
+    static List<StaffListItem> staffList(int size) {
+        List<StaffListItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int dept = i % DEPARTMENTS.length;
+            int position = i % POSITIONS.length;
+            items.add(new StaffListItem(
+                    i + 1,
+                    "staff" + i,
+                    "ACTIVE",
+                    "재직",
+                    "DOCTOR",
+                    "홍길동" + i,
+                    "본관 " + (i % 9 + 1) + "층",
+                    "staff/photo/" + i + ".jpg",
+                    "환자 중심 진료를 합니다.",
+                    "010-1234-" + String.format("%04d", i % 10_000),
+                    (long) dept + 1,
+                    (long) position + 1,
+                    DEPARTMENTS[dept],
+                    POSITIONS[position],
+                    "https://minio.local/staff/photo/" + i + ".jpg?X-Amz-Signature=" + Integer.toHexString(i * 7919)));
+        }
+        return items;
+    }
+
+    static List<StaffCredentialDTO> credentialList(int size) {
+        List<StaffCredentialDTO> items = new ArrayList<>(size);
+        long base = 1_700_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            items.add(new StaffCredentialDTO(
+                    i + 1,
+                    i / 3 + 1,
+                    i % 2 == 0 ? "LICENSE" : "CERT",
+                    i % 2 == 0 ? "의사 면허" : "BLS 자격",
+                    "LIC-" + (100_000 + i),
+                    "보건복지부",
+                    new Date(base + i * 86_400_000L),
+                    new Date(base + (i + 365) * 86_400_000L),
+                    "VALID",
+                    "staff/credential/" + i + ".pdf",
+                    null));
+        }
+        return items;
+    }
+
+    static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        mapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
@@ -0,0 +1,70 @@
+package app.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private org.springframework.cache.Cache remote;
+    private Cache<String, Object> local;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = mock(org.springframework.cache.Cache.class);
+        when(remote.getName()).thenReturn("staff");
+        local = Caffeine.newBuilder().build();
+        cache = new TwoLevelCache(remote, local, mock(CacheInvalidationBus.class), new CacheMetrics("staff"));
+    }
+
+    @Test
+    void readThatRacedAnEvictionIsNotCopiedToL1() {
+        when(remote.get("k")).thenAnswer(invocation -> {
+            // Evicted on this node after Redis answered with the old value.
+            cache.evict("k");
+            return new SimpleValueWrapper("before-evict");
+        });
+
+        assertEquals("before-evict", cache.get("k").get());
+        assertNull(local.getIfPresent("k"));
+    }
+
+    @Test
+    void readThatRacedARemoteInvalidationIsNotCopiedToL1() {
+        when(remote.get("k")).thenAnswer(invocation -> {
+            cache.invalidateLocal("k");
+            return new SimpleValueWrapper("before-evict");
+        });
+
+        cache.get("k");
+        assertNull(local.getIfPresent("k"));
+    }
+
+    @Test
+    void readThatRacedAClearIsNotCopiedToL1() {
+        when(remote.get("k")).thenAnswer(invocation -> {
+            cache.invalidateLocal(null);
+            return new SimpleValueWrapper("before-clear");
+        });
+
+        cache.get("k");
+        assertNull(local.getIfPresent("k"));
+    }
+
+    @Test
+    void undisturbedReadIsCopiedToL1() {
+        when(remote.get("k")).thenReturn(new SimpleValueWrapper("rows"));
+
+        cache.get("k");
+
+        assertEquals("rows", local.getIfPresent("k"));
+    }
+}
@@ -0,0 +1,138 @@
+package app.common.history;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource with no database behind it that records every statement execution (one round trip each;
+ * addBatch is not one). Queries return a single row whose first column is an increasing number, which is
+ * all a sequence NEXTVAL needs.
+ */
+public final class CountingDataSource {
+
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong sequence = new AtomicLong(1);
+    private final DataSource dataSource = proxy(DataSource.class, (proxy, method, args) ->
+            "getConnection".equals(method.getName()) ? connection() : defaultValue(method.getReturnType()));
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    // SQL of every execution, in order.
+    public List<String> executed() {
+        return new ArrayList<>(executed);
+    }
+
+    public void reset() {
+        executed.clear();
+    }
+
+    private Connection connection() {
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (proxy, method, args) ->
+                "supportsBatchUpdates".equals(method.getName()) ? true : defaultValue(method.getReturnType()));
+        Connection[] connection = new Connection[1];
+        connection[0] = proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement(connection[0], (String) args[0]);
+                case "getMetaData":
+                    return metaData;
+                case "getAutoCommit":
+                    return true;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+        return connection[0];
+    }
+
+    private PreparedStatement statement(Connection connection, String sql) {
+        int[] batched = new int[1];
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "addBatch":
+                    batched[0]++;
+                    return null;
+                case "executeBatch":
+                    executed.add(sql);
+                    int[] counts = new int[batched[0]];
+                    Arrays.fill(counts, 1);
+                    batched[0] = 0;
+                    return counts;
+                case "executeUpdate":
+                    executed.add(sql);
+                    return 1;
+                case "executeQuery":
+                    executed.add(sql);
+                    return resultSet(sequence.getAndIncrement());
+                case "getConnection":
+                    return connection;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private ResultSet resultSet(long value) {
+        boolean[] read = new boolean[1];
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (proxy, method, args) ->
+                "getColumnCount".equals(method.getName()) ? 1 : defaultValue(method.getReturnType()));
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    boolean first = !read[0];
+                    read[0] = true;
+                    return first;
+                case "getLong":
+                    return value;
+                case "getObject":
+                    return value;
+                case "getMetaData":
+                    return metaData;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    // Identity equals / hashCode, so the DataSource works as a transaction resource key.
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withIdentity = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Counting" + type.getSimpleName();
+                default:
+                    return handler.invoke(proxy, method, args);
+            }
+        };
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, withIdentity);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        return null;
+    }
+}
@@ -0,0 +1,150 @@
+package app.common.history;
+
+import app.reception.dto.VisitUpdateReq;
+import app.reception.entity.VisitEntity;
+import app.reception.repository.VisitEmergencyRepository;
+import app.reception.repository.VisitHistoryRepository;
+import app.reception.repository.VisitInpatientRepository;
+import app.reception.repository.VisitRepository;
+import app.reception.repository.VisitReservationRepository;
+import app.reception.service.ReceptionService;
+import app.reception.service.ReservationSlotEngine;
+import app.reception.service.VisitNumberAllocator;
+import app.reception.service.WardBedService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statements per ReceptionService.updateVisit for the history rows, before and after the journal.
+ * Repositories are mocks, so only history statements reach the counting DataSource.
+ *
+ * Old path: one VisitHistoryRepository.save per changed field. VisitHistoryEntity uses a sequence with
+ * allocationSize = 1 and hibernate.jdbc.batch_size is not set, so every row cost a NEXTVAL and an INSERT;
+ * it is replayed here as exactly those two statements per row.
+ */
+class HistoryJournalStatementCountTest {
+
+    private static final int UPDATES = 10;
+    private static final int CHANGED_FIELDS = 6;
+    private static final String VISIT_HISTORY_SEQ = "CMH.VISIT_HISTORY_SEQ";
+
+    private final CountingDataSource counting = new CountingDataSource();
+    private final JdbcTemplate jdbc = new JdbcTemplate(counting.dataSource());
+    private final TransactionTemplate transaction =
+            new TransactionTemplate(new DataSourceTransactionManager(counting.dataSource()));
+
+    @Test
+    void statementsPerUpdateVisitBeforeAndAfterJournal() {
+        // Old path: capture the rows one update writes, then write them the way the per-field saves did.
+        HistoryJournal recordingJournal = mock(HistoryJournal.class);
+        ReceptionService recording = receptionService(recordingJournal);
+        for (int i = 0; i < UPDATES; i++) {
+            long visitId = i + 1;
+            transaction.executeWithoutResult(status -> recording.updateVisit(visitId, changes()));
+        }
+        ArgumentCaptor<HistoryRecord> records = ArgumentCaptor.forClass(HistoryRecord.class);
+        verify(recordingJournal, atLeastOnce()).append(any(), records.capture());
+        assertEquals(UPDATES * CHANGED_FIELDS, records.getAllValues().size());
+
+        counting.reset();
+        HistoryTable table = HistoryTable.of("CMH.VISIT_HISTORY", "VISIT_ID", VISIT_HISTORY_SEQ);
+        for (HistoryRecord record : records.getAllValues()) {
+            transaction.executeWithoutResult(status -> saveOneRow(table, record));
+        }
+        int oldStatements = counting.executed().size();
+
+        // Journal path: the real service writing through HistoryJournal.
+        HistoryJournal journal = new HistoryJournal(jdbc);
+        ReflectionTestUtils.setField(journal, "idBlockSize", 50);
+        ReflectionTestUtils.setField(journal, "entityManager", mock(EntityManager.class));
+        ReceptionService service = receptionService(journal);
+        counting.reset();
+        for (int i = 0; i < UPDATES; i++) {
+            long visitId = i + 1;
+            transaction.executeWithoutResult(status -> service.updateVisit(visitId, changes()));
+        }
+        List<String> journalSql = counting.executed();
+        long nextvals = journalSql.stream().filter(sql -> sql.contains(".NEXTVAL")).count();
+
+        System.out.printf("[BENCH] updateVisit history (%d fields): %.1f statements/update per-field saves, "
+                        + "%.1f statements/update journal (%d batches, %d NEXTVAL for %d rows)%n",
+                CHANGED_FIELDS, (double) oldStatements / UPDATES, (double) journalSql.size() / UPDATES,
+                journalSql.size() - nextvals, nextvals, journal.getRows());
+
+        assertEquals(2 * UPDATES * CHANGED_FIELDS, oldStatements);
+        // One batch insert per update, plus one NEXTVAL per 50 ids.
+        assertEquals(UPDATES, journalSql.size() - nextvals);
+        assertEquals((UPDATES * CHANGED_FIELDS + 49) / 50, nextvals);
+        assertEquals(UPDATES * CHANGED_FIELDS, journal.getRows());
+        assertTrue(journalSql.size() * 5 <= oldStatements);
+    }
+
+    private void saveOneRow(HistoryTable table, HistoryRecord record) {
+        Long id = jdbc.queryForObject("SELECT " + table.getSequenceName() + ".NEXTVAL FROM DUAL", Long.class);
+        jdbc.update(table.getInsertSql(), id, record.getOwnerId(), record.getEventType(), record.getFieldName(),
+                record.getOldValue(), record.getNewValue(), record.getReason(), record.getChangedBy(),
+                Timestamp.valueOf(record.getChangedAt()));
+    }
+
+    private ReceptionService receptionService(HistoryJournal journal) {
+        VisitRepository visitRepository = mock(VisitRepository.class);
+        when(visitRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(visit(invocation.getArgument(0))));
+        when(visitRepository.save(any(VisitEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return new ReceptionService(
+                visitRepository,
+                mock(VisitHistoryRepository.class),
+                mock(VisitReservationRepository.class),
+                mock(VisitEmergencyRepository.class),
+                mock(VisitInpatientRepository.class),
+                mock(ApplicationEventPublisher.class),
+                mock(VisitNumberAllocator.class),
+                journal,
+                mock(ReservationSlotEngine.class),
+                mock(WardBedService.class));
+    }
+
+    private static VisitEntity visit(Long id) {
+        VisitEntity visit = new VisitEntity();
+        visit.setId(id);
+        visit.setVisitType("OUTPATIENT");
+        visit.setStatus("WAITING");
+        visit.setDeptCode("IM");
+        visit.setDoctorId("D001");
+        visit.setPriorityYn(false);
+        visit.setQueueNo(1);
+        visit.setMemo("before");
+        return visit;
+    }
+
+    // Six changed fields, as when reception reassigns a visit.
+    private static VisitUpdateReq changes() {
+        VisitUpdateReq req = new VisitUpdateReq();
+        req.setVisitType("EMERGENCY");
+        req.setDeptCode("ER");
+        req.setDoctorId("D002");
+        req.setPriorityYn(true);
+        req.setQueueNo(7);
+        req.setMemo("after");
+        req.setUpdatedBy("tester");
+        return req;
+    }
+}
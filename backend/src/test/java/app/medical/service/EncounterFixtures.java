@@ -0,0 +1,42 @@
+package app.medical.service;
+
+import java.util.Random;
+
+// Generated MEDICAL_ENCOUNTER keyword fields: Korean names, patient numbers and ICD-10 style codes.
+final class EncounterFixtures {
+
+    private static final String[] FAMILY = {"김", "이", "박", "최", "정", "강", "조", "윤", "장", "임", "한", "오", "서", "신", "권", "황"};
+    private static final String[] GIVEN = {"민", "서", "준", "지", "현", "우", "예", "도", "하", "윤", "수", "연", "길", "동", "영", "진", "은", "주"};
+    private static final String[] CODES = {"J00", "J06.9", "I10", "E11.9", "K21.0", "M54.5", "R51", "A09", "N39.0", "J45.9", "S93.4", "Z00.0"};
+
+    private final Random random;
+
+    EncounterFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    String name() {
+        StringBuilder sb = new StringBuilder(FAMILY[random.nextInt(FAMILY.length)]);
+        int given = 1 + random.nextInt(2);
+        for (int i = 0; i < given; i++) {
+            sb.append(GIVEN[random.nextInt(GIVEN.length)]);
+        }
+        // Some rows were typed with a space or in English.
+        int shape = random.nextInt(50);
+        if (shape == 0) return sb.insert(1, ' ').toString();
+        if (shape == 1) return "Kim Minjun";
+        return sb.toString();
+    }
+
+    String patientNo(long id) {
+        return "P" + String.format("%08d", id);
+    }
+
+    String diagnosisCode() {
+        return random.nextInt(10) == 0 ? null : CODES[random.nextInt(CODES.length)];
+    }
+
+    String document(long id) {
+        return EncounterSearchIndex.documentOf(name(), patientNo(id), diagnosisCode());
+    }
+}
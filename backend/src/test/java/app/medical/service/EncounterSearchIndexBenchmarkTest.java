@@ -0,0 +1,69 @@
+package app.medical.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Build time, heap and find latency of the encounter search index over one million generated rows.
+ * Run with ./gradlew test -Pbenchmark.
+ */
+@Tag("benchmark")
+class EncounterSearchIndexBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int QUERIES = 2_000;
+    private static final List<String> KEYWORDS = List.of(
+            "김민준", "박서", "ㅎㄱㄷ", "ㄱㅁㅈ", "p00012", "00345", "j06.9", "i10", "e11", "kim", "minjun", "장윤");
+
+    @Test
+    void buildAndFindAtOneMillionRows() {
+        EncounterSearchIndex index = new EncounterSearchIndex(mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(index, "maxIds", 2_000);
+        ReflectionTestUtils.setField(index, "refreshInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(index, "catchUpOverlap", Duration.ofMinutes(1));
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        EncounterFixtures fixtures = new EncounterFixtures(11);
+        EncounterSearchIndex.Builder builder = new EncounterSearchIndex.Builder();
+        for (long id = 1; id <= ROWS; id++) {
+            builder.add(id, fixtures.document(id));
+        }
+        index.install(builder, LocalDateTime.now());
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory() - heapBefore) / (1024 * 1024);
+
+        for (int i = 0; i < QUERIES; i++) {
+            index.find(KEYWORDS.get(i % KEYWORDS.size()));
+        }
+        long[] nanos = new long[QUERIES];
+        int answered = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long queryStart = System.nanoTime();
+            List<Long> ids = index.find(KEYWORDS.get(i % KEYWORDS.size()));
+            nanos[i] = System.nanoTime() - queryStart;
+            if (ids != null) answered++;
+        }
+        Arrays.sort(nanos);
+        double p50 = nanos[QUERIES / 2] / 1_000_000.0;
+        double p99 = nanos[QUERIES * 99 / 100] / 1_000_000.0;
+        System.out.printf("[BENCH] encounter search index: %d rows built in %d ms (~%d MB), find p50 %.2f ms, p99 %.2f ms, "
+                + "%d/%d answered by the index%n", ROWS, buildMillis, heapMb, p50, p99, answered, QUERIES);
+
+        // Loose bound so a slow CI box does not fail it; the printed numbers are the result.
+        assertTrue(p99 < 200, "find p99 " + p99 + " ms");
+    }
+}
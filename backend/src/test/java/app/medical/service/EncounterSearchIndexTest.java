@@ -0,0 +1,137 @@
+package app.medical.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class EncounterSearchIndexTest {
+
+    private static final int ROWS = 20_000;
+    private static final List<String> KEYWORDS = List.of(
+            "김민", "민준", "김 민준", "ㄱㅁ", "ㅎㄱㄷ", "길동", "p0000", "P00001", "00012",
+            "j06", "J06.9", "i10", "e11.9", "kim", "KIM MIN", "minjun",
+            Normalizer.normalize("김민", Normalizer.Form.NFD), "50%", "a_0", "없는이름");
+
+    private EncounterSearchIndex index;
+    // What SEARCH_TEXT holds for every row, in id order.
+    private final Map<Long, String> searchText = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new EncounterSearchIndex(mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(index, "maxIds", 100_000);
+        ReflectionTestUtils.setField(index, "refreshInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(index, "catchUpOverlap", Duration.ofMinutes(1));
+
+        EncounterFixtures fixtures = new EncounterFixtures(7);
+        EncounterSearchIndex.Builder builder = new EncounterSearchIndex.Builder();
+        for (long id = 1; id <= ROWS; id++) {
+            String document = fixtures.document(id);
+            searchText.put(id, document);
+            builder.add(id, document);
+        }
+        String named = EncounterSearchIndex.documentOf("홍길동", "P99999999", "J45.9");
+        searchText.put((long) ROWS + 1, named);
+        builder.add(ROWS + 1, named);
+        index.install(builder, LocalDateTime.now());
+    }
+
+    @Test
+    void indexMatchesLikeFallbackOverSearchText() {
+        for (String keyword : KEYWORDS) {
+            List<Long> fromIndex = index.find(keyword);
+            if (EncounterSearchIndex.normalize(keyword).length() < 2) {
+                assertNull(fromIndex, keyword);
+                continue;
+            }
+            List<Long> fromIndexSorted = new ArrayList<>(fromIndex);
+            Collections.sort(fromIndexSorted);
+            assertEquals(likeFallback(keyword), fromIndexSorted, "keyword " + keyword);
+        }
+    }
+
+    @Test
+    void koreanNameHandling() {
+        long hong = ROWS + 1;
+        assertTrue(index.find("ㅎㄱㄷ").contains(hong));
+        assertTrue(index.find("홍 길동").contains(hong));
+        assertTrue(index.find(Normalizer.normalize("홍길동", Normalizer.Form.NFD)).contains(hong));
+        assertTrue(likeFallback("ㅎㄱㄷ").contains(hong));
+    }
+
+    @Test
+    void matchesNeverSpanTwoFields() {
+        // Name ends with 동, patient no starts with p: "동p" must not match.
+        assertTrue(index.find("동p").isEmpty());
+        assertTrue(likeFallback("동p").isEmpty());
+    }
+
+    @Test
+    void updateReplacesTheOldText() {
+        long hong = ROWS + 1;
+        ReflectionTestUtils.invokeMethod(index, "put", hong, EncounterSearchIndex.documentOf("테스트환자", "P99999999", "C34.9"));
+
+        assertEquals(List.of(hong), index.find("테스트환자"));
+        assertEquals(List.of(hong), index.find("c34.9"));
+        assertTrue(index.find("ㅎㄱㄷ").isEmpty());
+    }
+
+    @Test
+    void answersNullAboveMaxIdsAndForOneCharacter() {
+        ReflectionTestUtils.setField(index, "maxIds", 10);
+
+        assertNull(index.find("p0"));
+        assertNull(index.find("김"));
+    }
+
+    // MEDICAL_ENCOUNTER.SEARCH_TEXT LIKE likePattern(keyword) ESCAPE '\', evaluated in memory.
+    private List<Long> likeFallback(String keyword) {
+        String pattern = EncounterSearchIndex.likePattern(keyword);
+        List<Long> ids = new ArrayList<>();
+        searchText.forEach((id, text) -> {
+            if (like(text, pattern, EncounterSearchIndex.likeEscape())) ids.add(id);
+        });
+        return ids;
+    }
+
+    static boolean like(String value, String pattern, char escape) {
+        return like(value, 0, pattern, 0, escape);
+    }
+
+    private static boolean like(String value, int v, String pattern, int p, char escape) {
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p);
+            if (c == '%') {
+                for (int from = v; from <= value.length(); from++) {
+                    if (like(value, from, pattern, p + 1, escape)) return true;
+                }
+                return false;
+            }
+            if (v == value.length()) return false;
+            if (c == escape) {
+                c = pattern.charAt(++p);
+                if (value.charAt(v) != c) return false;
+            } else if (c != '_' && value.charAt(v) != c) {
+                return false;
+            }
+            v++;
+            p++;
+        }
+        return v == value.length();
+    }
+}